@@ -0,0 +1,69 @@
+package hello.itemservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.web.validation.ApiErrorWriter;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON API 검증 오류 응답 비교 (오류 4개: NotBlank, Range, Max, totalPriceMin)
+ * allErrors: 기존 방식, bindingResult.getAllErrors() 를 ObjectMapper 로 직렬화
+ * apiErrorWriter: {field, code, message} 를 JsonGenerator 로 직접 쓰기 (메시지 조회 포함)
+ * 응답 크기는 Setup 에서 한 번 출력한다. -prof gc 로 할당량도 함께 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ApiErrorBenchmark {
+
+    ObjectMapper objectMapper;
+    ApiErrorWriter apiErrorWriter;
+    BindingResult bindingResult;
+    Locale locale = Locale.KOREAN;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("messages", "errors");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+        apiErrorWriter = new ApiErrorWriter(objectMapper, messageSource);
+
+        ItemSaveForm form = new ItemSaveForm();
+        form.setItemName(" ");
+        form.setPrice(0);
+        form.setQuantity(10000);
+        bindingResult = new BeanPropertyBindingResult(form, "item");
+        try (ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory()) {
+            new SpringValidatorAdapter(validatorFactory.getValidator()).validate(form, bindingResult);
+        }
+
+        System.out.println("allErrors bytes=" + allErrors().length + ", apiErrorWriter bytes=" + apiErrorWriter().length);
+    }
+
+    @Benchmark
+    public byte[] allErrors() throws IOException {
+        return objectMapper.writeValueAsBytes(bindingResult.getAllErrors());
+    }
+
+    @Benchmark
+    public byte[] apiErrorWriter() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        apiErrorWriter.write(bindingResult, locale, out);
+        return out.toByteArray();
+    }
+}
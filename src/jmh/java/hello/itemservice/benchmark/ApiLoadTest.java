@@ -0,0 +1,96 @@
+package hello.itemservice.benchmark;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * /validation/api/items/add 에 본문을 천천히 보내는 클라이언트를 동시에 붙여서
+ * 동시 접속 수별 p50, p99 응답 시간과 실패 수를 출력한다.
+ * 서버를 validation.api.execution=blocking, non-blocking 으로 각각 띄우고 실행해서 비교한다.
+ *
+ * ./gradlew apiLoadTest -Pargs="localhost 8080 2000"
+ * args: host port 업로드_지연(ms)
+ */
+public class ApiLoadTest {
+
+    private static final byte[] BODY = "{\"itemName\":\"itemA\",\"price\":10000,\"quantity\":10}".getBytes(StandardCharsets.UTF_8);
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 8080;
+        long uploadDelayMillis = args.length > 2 ? Long.parseLong(args[2]) : 2000;
+
+        for (int clients = 50; clients <= 1600; clients *= 2) {
+            run(host, port, uploadDelayMillis, clients);
+        }
+    }
+
+    private static void run(String host, int port, long uploadDelayMillis, int clients) throws InterruptedException {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger failures = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(clients);
+
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    long start = System.nanoTime();
+                    if (post(host, port, uploadDelayMillis)) {
+                        latencies.add((System.nanoTime() - start) / 1_000_000);
+                    } else {
+                        failures.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.start();
+        }
+        done.await();
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.printf("clients=%5d ok=%5d failed=%5d p50=%6dms p99=%6dms%n",
+                clients, sorted.size(), failures.get(), percentile(sorted, 50), percentile(sorted, 99));
+    }
+
+    //헤더와 본문 앞부분을 보낸 뒤 uploadDelayMillis 만큼 기다렸다가 나머지를 보낸다.
+    private static boolean post(String host, int port, long uploadDelayMillis) throws Exception {
+        try (Socket socket = new Socket(host, port)) {
+            socket.setSoTimeout(60_000);
+            OutputStream out = socket.getOutputStream();
+            String headers = "POST /validation/api/items/add HTTP/1.1\r\n" +
+                    "Host: " + host + "\r\n" +
+                    "Content-Type: application/json\r\n" +
+                    "Content-Length: " + BODY.length + "\r\n" +
+                    "Connection: close\r\n\r\n";
+            out.write(headers.getBytes(StandardCharsets.US_ASCII));
+            out.write(BODY, 0, BODY.length / 2);
+            out.flush();
+            Thread.sleep(uploadDelayMillis);
+            out.write(BODY, BODY.length / 2, BODY.length - BODY.length / 2);
+            out.flush();
+
+            InputStream in = socket.getInputStream();
+            byte[] statusLine = new byte[12];
+            int read = in.readNBytes(statusLine, 0, statusLine.length);
+            return read == statusLine.length && new String(statusLine, StandardCharsets.US_ASCII).endsWith("200");
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        if (sorted.isEmpty()) {
+            return -1;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0));
+    }
+}
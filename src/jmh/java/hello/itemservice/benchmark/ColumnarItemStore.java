@@ -0,0 +1,173 @@
+package hello.itemservice.benchmark;
+
+import hello.itemservice.domain.item.Item;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 상품을 컬럼별 기본형 배열에 보관하는 저장소
+ * HashMap<Long, Item> 은 상품마다 Item, Long, Integer 2개, String, Map.Entry 객체가 생기지만
+ * 여기서는 가격, 수량은 int[] 한 칸씩, 이름은 UTF-8 바이트 영역에 이어서 저장한다.
+ *
+ * id 는 순서대로 할당하고 배열 위치(id - firstId)로 사용하므로 id 배열과 id -> 위치 맵이 필요 없다.
+ * clearStore 후에도 id 는 이어서 증가한다. (이전에 받은 id 로 다른 상품이 조회되지 않는다)
+ * null 인 가격, 수량은 컬럼별 null 비트맵에, null 인 이름은 길이 -1 로 표시한다. (int 의 모든 값을 저장할 수 있다)
+ * 수정으로 버려진 이름 바이트가 사용 중인 영역의 절반을 넘으면 살아있는 이름만 앞으로 모은다.
+ * findById 는 저장된 값으로 새 Item 을 만들어 반환한다. (반환된 객체를 수정해도 저장소에는 반영되지 않는다)
+ *
+ * ItemRepository 의 저장 방식(item.repository.mode)이 아니라 ItemFootprint 의 힙 사용량 비교용이다.
+ * 정렬, 페이징, 이름 인덱스, 변경 이벤트, 저널을 지원하지 않는다.
+ */
+public class ColumnarItemStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    //이름 영역이 이보다 작으면 압축하지 않는다.
+    private static final int COMPACT_MIN_BYTES = 64 * 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long firstId = 1;
+    private int size;
+    private int[] prices = new int[INITIAL_CAPACITY];
+    private int[] quantities = new int[INITIAL_CAPACITY];
+    private final BitSet nullPrices = new BitSet();
+    private final BitSet nullQuantities = new BitSet();
+    private int[] nameOffsets = new int[INITIAL_CAPACITY];
+    private int[] nameLengths = new int[INITIAL_CAPACITY];
+    //이름 자리의 크기, 짧은 이름으로 수정해도 자리는 그대로 두고 다음 수정에 재사용한다.
+    private int[] nameCapacities = new int[INITIAL_CAPACITY];
+
+    private byte[] names = new byte[INITIAL_CAPACITY * 8];
+    private int namesUsed;
+    private int namesGarbage;
+
+    public Item save(Item item) {
+        lock.writeLock().lock();
+        try {
+            if (size == prices.length) {
+                int capacity = size * 2;
+                prices = Arrays.copyOf(prices, capacity);
+                quantities = Arrays.copyOf(quantities, capacity);
+                nameOffsets = Arrays.copyOf(nameOffsets, capacity);
+                nameLengths = Arrays.copyOf(nameLengths, capacity);
+                nameCapacities = Arrays.copyOf(nameCapacities, capacity);
+            }
+            int slot = size++;
+            nameCapacities[slot] = 0;
+            write(slot, item);
+            item.setId(firstId + slot);
+            return item;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Item findById(Long id) {
+        lock.readLock().lock();
+        try {
+            int slot = slot(id);
+            if (slot < 0) {
+                return null;
+            }
+            int length = nameLengths[slot];
+            Item item = new Item(
+                    length < 0 ? null : new String(names, nameOffsets[slot], length, StandardCharsets.UTF_8),
+                    nullPrices.get(slot) ? null : prices[slot],
+                    nullQuantities.get(slot) ? null : quantities[slot]);
+            item.setId(id);
+            return item;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void update(Long itemId, Item updateParam) {
+        lock.writeLock().lock();
+        try {
+            int slot = slot(itemId);
+            if (slot >= 0) {
+                write(slot, updateParam);
+                if (namesUsed > COMPACT_MIN_BYTES && namesGarbage > namesUsed / 2) {
+                    compactNames();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int count() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clearStore() {
+        lock.writeLock().lock();
+        try {
+            firstId += size;
+            size = 0;
+            nullPrices.clear();
+            nullQuantities.clear();
+            namesUsed = 0;
+            namesGarbage = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int slot(Long id) {
+        if (id == null || id < firstId || id - firstId >= size) {
+            return -1;
+        }
+        return (int) (id - firstId);
+    }
+
+    private void write(int slot, Item item) {
+        prices[slot] = item.getPrice() == null ? 0 : item.getPrice();
+        nullPrices.set(slot, item.getPrice() == null);
+        quantities[slot] = item.getQuantity() == null ? 0 : item.getQuantity();
+        nullQuantities.set(slot, item.getQuantity() == null);
+
+        if (item.getItemName() == null) {
+            nameLengths[slot] = -1;
+            return;
+        }
+        byte[] name = item.getItemName().getBytes(StandardCharsets.UTF_8);
+        //이전 이름 자리에 들어가면 그 자리를 재사용하고, 아니면 자리를 버리고 뒤에 새로 잡는다.
+        if (name.length > nameCapacities[slot]) {
+            namesGarbage += nameCapacities[slot];
+            if (namesUsed + name.length > names.length) {
+                names = Arrays.copyOf(names, Math.max(names.length * 2, namesUsed + name.length));
+            }
+            nameOffsets[slot] = namesUsed;
+            nameCapacities[slot] = name.length;
+            namesUsed += name.length;
+        }
+        System.arraycopy(name, 0, names, nameOffsets[slot], name.length);
+        nameLengths[slot] = name.length;
+    }
+
+    //살아있는 이름만 위치 순서대로 새 영역에 모은다. 자리 크기는 지금 이름 길이로 줄어든다.
+    private void compactNames() {
+        byte[] compacted = new byte[Math.max(INITIAL_CAPACITY * 8, (namesUsed - namesGarbage) * 2)];
+        int used = 0;
+        for (int slot = 0; slot < size; slot++) {
+            int length = Math.max(nameLengths[slot], 0);
+            System.arraycopy(names, nameOffsets[slot], compacted, used, length);
+            nameOffsets[slot] = used;
+            nameCapacities[slot] = length;
+            used += length;
+        }
+        names = compacted;
+        namesUsed = used;
+        namesGarbage = 0;
+    }
+}
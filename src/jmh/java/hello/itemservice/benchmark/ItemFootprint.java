@@ -0,0 +1,61 @@
+package hello.itemservice.benchmark;
+
+import hello.itemservice.domain.item.Item;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * HashMap<Long, Item> 과 ColumnarItemStore 의 상품당 힙 사용량 비교
+ * 힙 크기는 JMH 로 측정하기 어려워서 GC 이후 사용량으로 직접 측정한다.
+ *
+ * ./gradlew footprint
+ */
+public class ItemFootprint {
+
+    public static void main(String[] args) {
+        int[] counts = {1_000_000, 10_000_000};
+        for (int count : counts) {
+            System.out.printf("items = %,d%n", count);
+            measure("HashMap<Long, Item>", count, ItemFootprint::hashMapStore);
+            measure("ColumnarItemStore", count, ItemFootprint::columnarStore);
+        }
+    }
+
+    private static Object hashMapStore(int count) {
+        Map<Long, Item> store = new HashMap<>();
+        for (long id = 1; id <= count; id++) {
+            Item item = new Item("item" + id, 1000 + (int) (id % 1000), (int) (id % 100));
+            item.setId(id);
+            store.put(id, item);
+        }
+        return store;
+    }
+
+    private static Object columnarStore(int count) {
+        ColumnarItemStore store = new ColumnarItemStore();
+        for (long id = 1; id <= count; id++) {
+            store.save(new Item("item" + id, 1000 + (int) (id % 1000), (int) (id % 100)));
+        }
+        return store;
+    }
+
+    private static void measure(String name, int count, IntFunction<Object> factory) {
+        long before = usedHeap();
+        Object store = factory.apply(count);
+        long after = usedHeap();
+        System.out.printf("  %-20s %,15d bytes, %6.1f bytes/item%n", name, after - before, (after - before) / (double) count);
+        if (store.hashCode() == 42) { //store 가 측정 전에 수거되지 않도록 참조를 유지한다.
+            System.out.println();
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
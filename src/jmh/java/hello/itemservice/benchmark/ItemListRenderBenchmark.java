@@ -0,0 +1,103 @@
+package hello.itemservice.benchmark;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.validation.ItemListFragments;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 상품 10k 건 목록 렌더링 시간 비교
+ * rowLoop: 행마다 th:each 로 표현식을 평가하는 기존 템플릿 (v3)
+ * cachedFragments: 캐시된 머리글, 행 HTML 을 출력하는 템플릿 (v4)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ItemListRenderBenchmark {
+
+    @Param({"10000"})
+    int rows;
+
+    SpringTemplateEngine templateEngine;
+    ItemListFragments fragments;
+    MockServletContext servletContext;
+    List<Item> items;
+    ItemPage page;
+
+    @Setup
+    public void setup() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("messages", "errors");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        templateResolver.setCacheable(true);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+
+        fragments = new ItemListFragments(messageSource, new ItemRepository(), rows);
+        servletContext = new MockServletContext();
+
+        items = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            Item item = new Item("item" + id, 1000 + (int) id, (int) (id % 100));
+            item.setId(id);
+            item.setVersion(1L);
+            items.add(item);
+        }
+        page = new ItemPage(items, 0, rows, true);
+    }
+
+    @Benchmark
+    public String rowLoop() {
+        WebContext context = context();
+        context.setVariable("items", items);
+        return render("validation/v3/items", context);
+    }
+
+    @Benchmark
+    public String cachedFragments() {
+        WebContext context = context();
+        context.setVariable("items", items);
+        context.setVariable("labels", fragments.labels(Locale.KOREA));
+        context.setVariable("headerHtml", fragments.header(Locale.KOREA));
+        context.setVariable("rowsHtml", fragments.rows(items, "/validation/v4/items"));
+        return render("validation/v4/items", context);
+    }
+
+    private WebContext context() {
+        WebContext context = new WebContext(new MockHttpServletRequest(servletContext), new MockHttpServletResponse(),
+                servletContext, Locale.KOREA);
+        context.setVariable("page", page);
+        context.setVariable("sort", "id,asc");
+        return context;
+    }
+
+    private String render(String template, WebContext context) {
+        StringWriter writer = new StringWriter(rows * 200);
+        templateEngine.process(template, context, writer);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,66 @@
+package hello.itemservice.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.MessageCodesResolver;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지 코드 생성과 errors.properties 조회 비용 측정
+ * MessageCodesResolverTest 와 같은 호출을 사용한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MessageBenchmark {
+
+    MessageCodesResolver codesResolver;
+    ResourceBundleMessageSource messageSource;
+
+    @Setup
+    public void setup() {
+        codesResolver = new DefaultMessageCodesResolver();
+
+        //application.properties 의 spring.messages.basename=messages,errors 와 같은 설정
+        messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("messages", "errors");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+    }
+
+    @Benchmark
+    public String[] resolveObjectCodes() {
+        return codesResolver.resolveMessageCodes("required", "item");
+    }
+
+    @Benchmark
+    public String[] resolveFieldCodes() {
+        return codesResolver.resolveMessageCodes("required", "item", "itemName", String.class);
+    }
+
+    @Benchmark
+    public String messageWithoutArgs() {
+        return messageSource.getMessage("required.item.itemName", null, Locale.KOREA);
+    }
+
+    @Benchmark
+    public String messageWithArgs() {
+        return messageSource.getMessage("range.item.price", new Object[]{1000, 1000000}, Locale.KOREA);
+    }
+
+    @Benchmark
+    public String messageFallbackToLevel4() {
+        //Level1~3 코드가 없어서 마지막 코드까지 내려가는 경우
+        String[] codes = codesResolver.resolveMessageCodes("range", "item", "quantity", Long.class);
+        for (String code : codes) {
+            String message = messageSource.getMessage(code, new Object[]{1, 10}, null, Locale.KOREA);
+            if (message != null) {
+                return message;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,79 @@
+package hello.itemservice.benchmark;
+
+import hello.itemservice.message.PrecompiledMessageSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.validation.DefaultMessageCodesResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResourceBundleMessageSource 와 PrecompiledMessageSource 의 메시지 조회 처리량 비교
+ * 한국어(기본 파일)와 messages_en 을 모두 측정하고, 공유된 MessageFormat 의 synchronized 경합이 보이도록 4 스레드로 실행한다.
+ *
+ * withArgs: range.item.price ({0} ~ {1}, 숫자 형식)
+ * withoutArgs: label.item.price (messages 에 있는 코드, errors 까지 찾지 않는다)
+ * errorsWithoutArgs: required.item.itemName (errors 에 있는 코드, messages 를 먼저 찾는다)
+ * fieldError: Range 검증 오류 하나를 화면에 출력할 때와 같은 조회 (코드 4개, 필드명 인자)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(4)
+public class MessageSourceBenchmark {
+
+    @Param({"resourceBundle", "precompiled"})
+    String source;
+
+    @Param({"ko", "en"})
+    String language;
+
+    MessageSource messageSource;
+    Locale locale;
+    Object[] rangeArgs = {1000, 1000000};
+    DefaultMessageSourceResolvable fieldError;
+
+    @Setup
+    public void setup() {
+        //application.properties 의 spring.messages.basename=messages,errors 와 같은 설정
+        String[] basenames = {"messages", "errors"};
+        if ("precompiled".equals(source)) {
+            messageSource = new PrecompiledMessageSource(basenames, StandardCharsets.UTF_8, false, -1);
+        } else {
+            ResourceBundleMessageSource resourceBundle = new ResourceBundleMessageSource();
+            resourceBundle.setBasenames(basenames);
+            resourceBundle.setDefaultEncoding("UTF-8");
+            resourceBundle.setFallbackToSystemLocale(false);
+            messageSource = resourceBundle;
+        }
+        locale = "en".equals(language) ? Locale.ENGLISH : Locale.KOREAN;
+
+        String[] codes = new DefaultMessageCodesResolver().resolveMessageCodes("Range", "item", "price", Integer.class);
+        Object[] args = {new DefaultMessageSourceResolvable(new String[]{"item.price", "price"}, "price"), 1000000, 1000};
+        fieldError = new DefaultMessageSourceResolvable(codes, args, null);
+    }
+
+    @Benchmark
+    public String withArgs() {
+        return messageSource.getMessage("range.item.price", rangeArgs, locale);
+    }
+
+    @Benchmark
+    public String withoutArgs() {
+        return messageSource.getMessage("label.item.price", null, locale);
+    }
+
+    @Benchmark
+    public String errorsWithoutArgs() {
+        return messageSource.getMessage("required.item.itemName", null, locale);
+    }
+
+    @Benchmark
+    public String fieldError() {
+        return messageSource.getMessage(fieldError, locale);
+    }
+}
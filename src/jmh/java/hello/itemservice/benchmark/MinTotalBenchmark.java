@@ -0,0 +1,99 @@
+package hello.itemservice.benchmark;
+
+import hello.itemservice.validation.MinTotal;
+import org.hibernate.validator.constraints.ScriptAssert;
+import org.openjdk.jmh.annotations.*;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 복합 룰(price * quantity >= 10000) 검증 비용 비교
+ * minTotal: @MinTotal (캐시된 MethodHandle)
+ * scriptAssert: @ScriptAssert (javascript, JDK 15 이상은 jmh 클래스패스의 Nashorn 사용)
+ * 두 클래스 모두 다른 제약이 없어서 복합 룰 비용만 측정된다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MinTotalBenchmark {
+
+    @Param({"valid", "invalid"})
+    String input;
+
+    ValidatorFactory validatorFactory;
+    Validator validator;
+
+    MinTotalTarget minTotalTarget;
+    ScriptAssertTarget scriptAssertTarget;
+
+    @Setup
+    public void setup() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        boolean valid = "valid".equals(input);
+        Integer price = valid ? 10000 : 1000;
+        Integer quantity = valid ? 10 : 5;
+
+        minTotalTarget = new MinTotalTarget(price, quantity);
+        scriptAssertTarget = new ScriptAssertTarget(price, quantity);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MinTotalTarget>> minTotal() {
+        return validator.validate(minTotalTarget);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<ScriptAssertTarget>> scriptAssert() {
+        return validator.validate(scriptAssertTarget);
+    }
+
+    @MinTotal(price = "price", quantity = "quantity", min = 10000)
+    public static class MinTotalTarget {
+        private final Integer price;
+        private final Integer quantity;
+
+        MinTotalTarget(Integer price, Integer quantity) {
+            this.price = price;
+            this.quantity = quantity;
+        }
+
+        public Integer getPrice() {
+            return price;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+    }
+
+    @ScriptAssert(lang = "javascript", script = "_this.price * _this.quantity >= 10000")
+    public static class ScriptAssertTarget {
+        private final Integer price;
+        private final Integer quantity;
+
+        ScriptAssertTarget(Integer price, Integer quantity) {
+            this.price = price;
+            this.quantity = quantity;
+        }
+
+        public Integer getPrice() {
+            return price;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package hello.itemservice.benchmark;
+
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.rule.RuleEngineValidator;
+import hello.itemservice.web.validation.rule.ValidationRule;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 느린 규칙(이름 중복 확인, 외부 조회를 흉내낸 지연) 여러 개를
+ * 순서대로 실행할 때와 규칙 엔진으로 동시에 실행할 때의 검증 시간 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RuleEngineBenchmark {
+
+    @Param({"2", "4", "8"})
+    int slowRules;
+
+    @Param({"5"})
+    int ruleLatencyMillis;
+
+    ExecutorService executor;
+    List<ValidationRule<ItemSaveForm>> rules;
+    RuleEngineValidator<ItemSaveForm> ruleEngine;
+    ItemSaveForm form;
+
+    @Setup
+    public void setup() {
+        executor = Executors.newFixedThreadPool(8);
+        rules = new ArrayList<>();
+        for (int i = 0; i < slowRules; i++) {
+            rules.add(ValidationRule.async("slow" + i, (form, errors) -> slowCheck()));
+        }
+        ruleEngine = new RuleEngineValidator<>(ItemSaveForm.class, rules, executor);
+
+        form = new ItemSaveForm();
+        form.setItemName("itemA");
+        form.setPrice(10000);
+        form.setQuantity(10);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public BindingResult sequential() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+        for (int i = 0; i < slowRules; i++) {
+            slowCheck();
+        }
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult ruleEngine() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+        ruleEngine.validate(form, bindingResult);
+        return bindingResult;
+    }
+
+    //지연 후 항상 통과하는 규칙
+    private void slowCheck() {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(ruleLatencyMillis));
+    }
+}
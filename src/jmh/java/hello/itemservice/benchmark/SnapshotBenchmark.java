@@ -0,0 +1,64 @@
+package hello.itemservice.benchmark;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스냅샷 내보내기, 가져오기 시간 (파일)
+ * load: 새 저장소에 가져오기 (시작할 때 --snapshot.import 와 같은 경로)
+ * 10,000,000 건은 원본과 가져온 저장소가 함께 힙에 있으므로 -Xmx8g 로 실행한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class SnapshotBenchmark {
+
+    @Param({"1000000", "10000000"})
+    int items;
+
+    @Param({"false", "true"})
+    boolean compress;
+
+    ItemRepository source;
+    Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        source = new ItemRepository();
+        for (int i = 0; i < items; i++) {
+            source.save(new Item("item" + i, 1000 + i % 1_000_000, i % 9999));
+        }
+        file = Files.createTempFile("items", ".snapshot");
+        export();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return source.exportSnapshot(channel, compress);
+        }
+    }
+
+    @Benchmark
+    public long load() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new ItemRepository().importSnapshot(channel);
+        }
+    }
+}
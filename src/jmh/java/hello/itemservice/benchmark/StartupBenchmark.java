@@ -0,0 +1,95 @@
+package hello.itemservice.benchmark;
+
+import hello.itemservice.ItemServiceApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 콜드 스타트 시간과 첫 요청 지연 측정 (validation.warmup.enabled on/off)
+ * JVM 마다 한 번만 실행해야 콜드 상태이므로 포크마다 한 번씩만 측정한다.
+ * startup: 애플리케이션 시작 ~ 서버 준비 (워밍업 비용 포함)
+ * firstApiRequest: 시작 직후 /validation/api/items/add 첫 요청 (@RequestBody 검증)
+ * firstFormRequest: 시작 직후 /validation/v3/add 첫 요청 (검증 + 오류 메시지 렌더링, Accept-Language: en)
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(5)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class StartupBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Options {
+        @Param({"true", "false"})
+        String warmup;
+
+        ConfigurableApplicationContext context;
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Started {
+        @Param({"true", "false"})
+        String warmup;
+
+        ConfigurableApplicationContext context;
+        HttpClient client;
+        String baseUrl;
+
+        @Setup(Level.Iteration)
+        public void setup() {
+            context = start(warmup);
+            client = HttpClient.newHttpClient();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext startup(Options options) {
+        options.context = start(options.warmup);
+        return options.context;
+    }
+
+    @Benchmark
+    public int firstApiRequest(Started started) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(started.baseUrl + "/validation/api/items/add"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"itemName\":\" \",\"price\":0,\"quantity\":10000}"))
+                .build();
+        return started.client.send(request, HttpResponse.BodyHandlers.ofString()).body().length();
+    }
+
+    @Benchmark
+    public int firstFormRequest(Started started) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(started.baseUrl + "/validation/v3/add"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Accept-Language", "en")
+                .POST(HttpRequest.BodyPublishers.ofString("itemName=itemA&price=1000&quantity=5"))
+                .build();
+        return started.client.send(request, HttpResponse.BodyHandlers.ofString()).body().length();
+    }
+
+    private static ConfigurableApplicationContext start(String warmup) {
+        return SpringApplication.run(ItemServiceApplication.class,
+                "--server.port=0", "--validation.warmup.enabled=" + warmup, "--logging.level.root=warn");
+    }
+}
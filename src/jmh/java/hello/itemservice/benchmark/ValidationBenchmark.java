@@ -0,0 +1,89 @@
+package hello.itemservice.benchmark;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.validation.ItemValidator;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검증 경로별 처리량 측정
+ * itemValidator: V2 방식(Validator 직접 구현)
+ * beanValidation*: V3, V4 방식(@Validated + Hibernate Validator)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ValidationBenchmark {
+
+    @Param({"valid", "invalid"})
+    String input;
+
+    ItemValidator itemValidator;
+    ValidatorFactory validatorFactory;
+    SpringValidatorAdapter beanValidator;
+
+    Item item;
+    ItemSaveForm saveForm;
+    ItemUpdateForm updateForm;
+
+    @Setup
+    public void setup() {
+        itemValidator = new ItemValidator(new ItemRepository());
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        beanValidator = new SpringValidatorAdapter(validatorFactory.getValidator());
+
+        boolean valid = "valid".equals(input);
+        String itemName = valid ? "itemA" : " ";
+        Integer price = valid ? 10000 : 0;
+        Integer quantity = valid ? 10 : 10000;
+
+        item = new Item(itemName, price, quantity);
+
+        saveForm = new ItemSaveForm();
+        saveForm.setItemName(itemName);
+        saveForm.setPrice(price);
+        saveForm.setQuantity(quantity);
+
+        updateForm = new ItemUpdateForm();
+        updateForm.setId(valid ? 1L : null);
+        updateForm.setItemName(itemName);
+        updateForm.setPrice(price);
+        updateForm.setQuantity(quantity);
+        updateForm.setVersion(valid ? 1L : null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public BindingResult itemValidator() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+        itemValidator.validate(item, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult beanValidationSaveForm() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(saveForm, "item");
+        beanValidator.validate(saveForm, bindingResult);
+        return bindingResult;
+    }
+
+    @Benchmark
+    public BindingResult beanValidationUpdateForm() {
+        BindingResult bindingResult = new BeanPropertyBindingResult(updateForm, "item");
+        beanValidator.validate(updateForm, bindingResult);
+        return bindingResult;
+    }
+}
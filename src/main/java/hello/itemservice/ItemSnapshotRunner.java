@@ -0,0 +1,59 @@
+package hello.itemservice;
+
+import hello.itemservice.domain.item.ItemRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 실행 인자로 스냅샷을 가져오거나 내보낸다.
+ * --snapshot.import=items.snapshot                     : 시작할 때 스냅샷으로 저장소를 교체
+ * --snapshot.export=items.snapshot [--snapshot.compress] : 시작한 뒤 저장소를 스냅샷으로 저장
+ *
+ * 서버 없이 한 번만 실행하려면 --spring.main.web-application-type=none 을 함께 준다.
+ * 예) 파일 모드 로그를 스냅샷으로 변환
+ * java -jar item-service.jar --item.repository.mode=file --snapshot.export=items.snapshot --spring.main.web-application-type=none
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSnapshotRunner implements ApplicationRunner {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        Path importPath = path(args, "snapshot.import");
+        if (importPath != null) {
+            long start = System.nanoTime();
+            try (FileChannel channel = FileChannel.open(importPath, StandardOpenOption.READ)) {
+                long count = itemRepository.importSnapshot(channel);
+                log.info("스냅샷 가져오기 {} count={}, {}ms", importPath, count, (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+
+        Path exportPath = path(args, "snapshot.export");
+        if (exportPath != null) {
+            long start = System.nanoTime();
+            try (FileChannel channel = FileChannel.open(exportPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long count = itemRepository.exportSnapshot(channel, args.containsOption("snapshot.compress"));
+                log.info("스냅샷 내보내기 {} count={}, {}ms", exportPath, count, (System.nanoTime() - start) / 1_000_000);
+            }
+        }
+    }
+
+    private static Path path(ApplicationArguments args, String name) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : Paths.get(values.get(0));
+    }
+}
@@ -15,9 +15,13 @@ public class TestDataInit {
 
     /**
      * 테스트용 데이터 추가
+     * 파일 모드에서 이전 데이터가 복구된 경우에는 추가하지 않는다.
      */
     @PostConstruct
     public void init() {
+        if (itemRepository.count() > 0) {
+            return;
+        }
         itemRepository.save(new Item("itemA", 10000, 10));
         itemRepository.save(new Item("itemB", 20000, 20));
     }
@@ -10,8 +10,13 @@ import javax.validation.constraints.NotNull;
 
 @Data
 //@ScriptAssert(lang = "javascript", script = "_this.price * _this.quantity >= 10000", message = "총합이 10000원 넘게 입력해주세요")
+//가격 * 수량 복합 룰은 폼(@MinTotal)과 각 Validator(MinTotalValidator.check)에서 검증한다.
+//엔티티에 붙이면 @Validated Item 에서 Bean Validation 과 ItemValidator 가 같은 오류를 두 번 남긴다.
 public class Item {
 
+    //가격 * 수량의 최솟값 (totalPriceMin)
+    public static final long MIN_TOTAL_PRICE = 10000;
+
     //@NotNull(groups = UpdateCheck.class) //수정 요구사항 추가
     private Long id;
 
@@ -26,6 +31,9 @@ public class Item {
     //@Max(value = 9999, groups = SaveCheck.class)
     private Integer quantity;
 
+    //저장 시 1, 수정할 때마다 1씩 증가한다. (ItemRepository 가 관리)
+    private Long version;
+
     public Item() {
     }
 
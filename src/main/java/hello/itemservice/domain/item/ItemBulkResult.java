@@ -0,0 +1,23 @@
+package hello.itemservice.domain.item;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ItemRepository 의 대량 수정, 삭제 결과
+ * conflicts 가 비어 있을 때만 반영된 것이다. 하나라도 있으면 updated, deleted 도 비어 있다.
+ */
+@Getter
+public class ItemBulkResult {
+
+    private final List<Long> updated = new ArrayList<>();
+    private final List<Long> deleted = new ArrayList<>();
+    //없거나 version 이 달라서 수정하지 못한 id
+    private final List<Long> conflicts = new ArrayList<>();
+
+    public boolean isApplied() {
+        return conflicts.isEmpty();
+    }
+}
@@ -0,0 +1,34 @@
+package hello.itemservice.domain.item;
+
+import lombok.Getter;
+
+/**
+ * ItemRepository 의 변경 하나. sequence 는 1 부터 변경 순서대로 증가한다.
+ * 같은 상품의 변경은 항상 sequence 순서대로 일어난 것이다.
+ *
+ * CREATED: after 만 있다.
+ * UPDATED: before(변경 전), after(변경 후)
+ * DELETED: before 만 있다.
+ * CLEARED: 저장소 전체를 비웠다. (clearStore, 스냅샷 가져오기) 받는 쪽도 전체를 비워야 한다.
+ */
+@Getter
+public class ItemChangeEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED, CLEARED
+    }
+
+    private final long sequence;
+    private final Type type;
+    private final Item before;
+    private final Item after;
+    private final long timestamp;
+
+    public ItemChangeEvent(long sequence, Type type, Item before, Item after, long timestamp) {
+        this.sequence = sequence;
+        this.type = type;
+        this.before = before;
+        this.after = after;
+        this.timestamp = timestamp;
+    }
+}
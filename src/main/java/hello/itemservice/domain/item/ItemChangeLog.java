@@ -0,0 +1,82 @@
+package hello.itemservice.domain.item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 최근 capacity 개의 변경을 보관하는 고정 크기 링 버퍼. 락 없이 여러 스레드가 동시에 기록하고 읽는다.
+ *
+ * 순서 번호를 먼저 받고(AtomicLong) 칸에 CAS 로 넣는다. 한 바퀴 늦게 도착한 기록이 새 기록을 덮어쓰지 않도록
+ * 칸에 있는 기록보다 순서 번호가 클 때만 넣는다.
+ * 읽는 쪽은 순서 번호가 이어지는 데까지만 읽는다. 번호는 받았지만 아직 칸에 넣지 않은 기록이 있으면 거기서 멈추고
+ * 다음에 다시 읽는다.
+ */
+public class ItemChangeLog {
+
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final AtomicReferenceArray<ItemChangeEvent> slots;
+    private final int mask;
+    private final AtomicLong sequence = new AtomicLong();
+
+    public ItemChangeLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 2의 거듭제곱
+     */
+    public ItemChangeLog(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity 는 2의 거듭제곱이어야 합니다. capacity=" + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    long publish(ItemChangeEvent.Type type, Item before, Item after) {
+        long next = sequence.incrementAndGet();
+        ItemChangeEvent event = new ItemChangeEvent(next, type, before, after, System.currentTimeMillis());
+        int index = (int) (next & mask);
+        ItemChangeEvent current;
+        do {
+            current = slots.get(index);
+            if (current != null && current.getSequence() > next) {
+                return next; //이미 한 바퀴 뒤의 기록이 들어갔다. (읽는 쪽에서는 유실로 보인다)
+            }
+        } while (!slots.compareAndSet(index, current, event));
+        return next;
+    }
+
+    //마지막으로 발급한 순서 번호, 아직 아무 변경도 없으면 0
+    public long getSequence() {
+        return sequence.get();
+    }
+
+    //아직 덮어쓰이지 않은 가장 오래된 순서 번호
+    public long getOldestSequence() {
+        return Math.max(1, sequence.get() - mask);
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * from 부터 순서 번호가 이어지는 변경을 최대 max 개 반환한다.
+     * from 이 getOldestSequence() 보다 작으면 그 사이의 변경은 이미 덮어쓰여서 읽을 수 없다.
+     */
+    public List<ItemChangeEvent> read(long from, int max) {
+        List<ItemChangeEvent> events = new ArrayList<>(Math.min(max, 256));
+        for (long next = Math.max(from, 1); events.size() < max; next++) {
+            ItemChangeEvent event = slots.get((int) (next & mask));
+            if (event == null || event.getSequence() != next) {
+                break; //아직 기록되지 않았거나 이미 덮어쓰였다.
+            }
+            events.add(event);
+        }
+        return events;
+    }
+}
@@ -0,0 +1,86 @@
+package hello.itemservice.domain.item;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * ItemRepository 의 변경 내역을 기록하는 로그
+ * append 가 반환한 번호로 sync() 를 호출하면 그 기록까지 디스크에 반영된 것이 보장된다.
+ */
+public interface ItemJournal {
+
+    //메모리 모드: 아무것도 기록하지 않는다.
+    ItemJournal NONE = new ItemJournal() {
+        @Override
+        public long append(Item item) {
+            return 0;
+        }
+
+        @Override
+        public long appendDelete(long id) {
+            return 0;
+        }
+
+        @Override
+        public long appendClear() {
+            return 0;
+        }
+
+        @Override
+        public long appendBatch(Collection<Item> items, Collection<Long> deleteIds) {
+            return 0;
+        }
+
+        @Override
+        public void sync(long ticket) {
+        }
+
+        @Override
+        public void replay(Consumer<Item> onPut, LongConsumer onDelete, Runnable onClear) {
+        }
+
+        @Override
+        public boolean needsCompaction(int liveCount) {
+            return false;
+        }
+
+        @Override
+        public void compact(Collection<Item> items) {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * 저장, 수정된 상품의 현재 상태를 기록한다.
+     */
+    long append(Item item);
+
+    long appendDelete(long id);
+
+    long appendClear();
+
+    /**
+     * 여러 상품의 저장, 삭제를 기록 하나로 남긴다. 다시 적용할 때는 전부 적용하거나 전부 무시한다.
+     */
+    long appendBatch(Collection<Item> items, Collection<Long> deleteIds);
+
+    void sync(long ticket);
+
+    /**
+     * 기록된 순서대로 다시 적용한다. 마지막에 끝까지 기록되지 못한 항목은 무시한다.
+     */
+    void replay(Consumer<Item> onPut, LongConsumer onDelete, Runnable onClear);
+
+    boolean needsCompaction(int liveCount);
+
+    /**
+     * 현재 살아있는 상품만 남기고 로그를 다시 쓴다.
+     */
+    void compact(Collection<Item> items);
+
+    void close();
+}
@@ -0,0 +1,77 @@
+package hello.itemservice.domain.item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 상품명 보조 인덱스 (소문자 상품명, 상품명, id 순서)
+ * 같은 상품명 조회와 대소문자를 무시한 접두어 조회를 O(log n) 으로 시작 위치를 찾은 뒤 필요한 만큼만 읽는다.
+ * ItemRepository 가 다른 인덱스와 같은 시점에 추가, 삭제한다.
+ */
+final class ItemNameIndex {
+
+    private final ConcurrentSkipListMap<Key, Item> index = new ConcurrentSkipListMap<>();
+
+    void add(Item item) {
+        index.put(new Key(item.getItemName(), item.getId()), item);
+    }
+
+    void remove(Item item) {
+        index.remove(new Key(item.getItemName(), item.getId()));
+    }
+
+    void clear() {
+        index.clear();
+    }
+
+    List<Item> findByName(String itemName) {
+        return new ArrayList<>(index.subMap(
+                new Key(itemName, Long.MIN_VALUE), true,
+                new Key(itemName, Long.MAX_VALUE), true).values());
+    }
+
+    //상품명이 없는 상품(null)은 제외된다.
+    Collection<Item> findByNamePrefix(String prefix) {
+        String folded = fold(prefix);
+        return index.subMap(
+                new Key(folded, "", Long.MIN_VALUE), true,
+                new Key(folded + Character.MAX_VALUE, "", Long.MIN_VALUE), false).values();
+    }
+
+    private static String fold(String itemName) {
+        return itemName == null ? "" : itemName.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Key implements Comparable<Key> {
+        private final String folded;
+        private final String itemName;
+        private final long id;
+
+        Key(String itemName, long id) {
+            this(fold(itemName), itemName, id);
+        }
+
+        Key(String folded, String itemName, long id) {
+            this.folded = folded;
+            this.itemName = itemName;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int result = folded.compareTo(other.folded);
+            if (result != 0) {
+                return result;
+            }
+            if (itemName == null || other.itemName == null) {
+                result = itemName == null ? (other.itemName == null ? 0 : -1) : 1;
+            } else {
+                result = itemName.compareTo(other.itemName);
+            }
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+    }
+}
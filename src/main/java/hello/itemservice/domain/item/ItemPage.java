@@ -0,0 +1,32 @@
+package hello.itemservice.domain.item;
+
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * findPage() 결과. 전체 개수를 세지 않고 다음 페이지가 있는지만 확인한다.
+ */
+@Getter
+public class ItemPage {
+
+    private final List<Item> content;
+    private final int offset;
+    private final int size;
+    private final boolean last;
+
+    public ItemPage(List<Item> content, int offset, int size, boolean last) {
+        this.content = content;
+        this.offset = offset;
+        this.size = size;
+        this.last = last;
+    }
+
+    public int getNumber() {
+        return offset / size;
+    }
+
+    public boolean isFirst() {
+        return offset == 0;
+    }
+}
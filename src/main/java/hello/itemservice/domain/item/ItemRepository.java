@@ -1,24 +1,158 @@
 package hello.itemservice.domain.item;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 @Repository
 public class ItemRepository {
 
-    private static final Map<Long, Item> store = new HashMap<>(); //static
-    private static long sequence = 0L; //static
+    public static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_IDEMPOTENCY_KEYS = 10_000;
+
+    private final Map<Long, Item> store = new ConcurrentHashMap<>(); //동시 요청에도 안전
+    private final AtomicLong sequence = new AtomicLong(); //id 유실 없이 원자적으로 증가
+
+    //저장소 전체 버전, 변경이 메모리에 반영된 뒤에 증가시킨다. (ETag, Last-Modified 용)
+    //epoch 는 저장소 세대, 시작할 때와 저장소를 비우거나 교체(스냅샷 가져오기)할 때 새로 정한다.
+    //같은 id, version 이 다시 나와도 이전 세대의 ETag, 캐시와 겹치지 않는다.
+    private volatile long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+
+    //정렬 기준별 보조 인덱스, 목록 조회 시 전체를 복사하고 정렬하지 않고 필요한 만큼만 읽는다.
+    private final Map<ItemSort.Property, NavigableSet<Item>> indexes = new EnumMap<>(ItemSort.Property.class);
+    //상품명 검색용 인덱스 (같은 이름, 대소문자 무시 접두어)
+    private final ItemNameIndex nameIndex = new ItemNameIndex();
+
+    //재고 금액(가격 * 수량) 집계, 변경될 때마다 차이만 반영한다. 최소, 최대는 금액 순서 인덱스의 처음과 끝이다.
+    private final NavigableSet<Item> valueIndex = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(ItemRepository::inventoryValue).thenComparing(Item::getId));
+    private final AtomicLong totalValue = new AtomicLong();
+
+    //Idempotency-Key -> 저장된 상품 id, 오래된 키부터 MAX_IDEMPOTENCY_KEYS 개를 넘지 않게 지운다. (메모리에만 보관)
+    private final Map<String, Long> idempotencyKeys = new ConcurrentHashMap<>();
+    private final Queue<String> idempotencyKeyOrder = new ConcurrentLinkedQueue<>();
+
+    //진행 중인 스냅샷 내보내기, 한 번에 하나씩만 진행한다.
+    private volatile Snapshot snapshot;
+    private final Object snapshotLock = new Object();
+
+    //변경 이벤트, 같은 상품의 변경은 키 잠금 안에서 발행하므로 순서 번호 순서와 실제 변경 순서가 같다.
+    private final ItemChangeLog changeLog = new ItemChangeLog();
+
+    //변경은 읽기 락으로 동시에 진행하고, 로그 압축은 쓰기 락으로 변경을 잠시 멈춘 뒤 진행한다.
+    private final ReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private final ItemJournal journal;
+
+    public ItemRepository() {
+        this(ItemJournal.NONE);
+    }
+
+    @Autowired
+    public ItemRepository(ItemJournal journal) {
+        this.journal = journal;
+        for (ItemSort.Property property : ItemSort.Property.values()) {
+            indexes.put(property, new ConcurrentSkipListSet<>(property.comparator()));
+        }
+        //파일 모드면 기록된 내용을 다시 적용해서 재시작 전 상태로 복구한다.
+        journal.replay(this::restore, this::evict, this::clearMemory);
+    }
 
     public Item save(Item item) {
-        item.setId(++sequence);
-        store.put(item.getId(), item);
+        long ticket;
+        journalLock.readLock().lock();
+        try {
+            ticket = put(item);
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        afterWrite(ticket);
+        return item;
+    }
+
+    /**
+     * 같은 idempotencyKey 로 다시 저장하면 새로 저장하지 않고 처음 저장한 상품을 반환한다.
+     * 동시에 같은 키로 들어오면 하나만 저장되고 나머지는 저장이 끝날 때까지 기다린다.
+     *
+     * @param idempotencyKey null 이면 save(item) 과 같다.
+     */
+    public Item save(Item item, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return save(item);
+        }
+        boolean[] created = new boolean[1];
+        Long id = idempotencyKeys.computeIfAbsent(idempotencyKey, key -> {
+            created[0] = true;
+            return save(item).getId();
+        });
+        if (!created[0]) {
+            Item saved = findById(id);
+            return saved != null ? saved : item;
+        }
+        idempotencyKeyOrder.add(idempotencyKey);
+        while (idempotencyKeys.size() > MAX_IDEMPOTENCY_KEYS) {
+            String eldest = idempotencyKeyOrder.poll();
+            if (eldest == null) {
+                break;
+            }
+            idempotencyKeys.remove(eldest);
+        }
         return item;
     }
 
+    //대량 등록용, 마지막에 한 번만 디스크에 반영한다.
+    public List<Item> saveAll(List<Item> items) {
+        long ticket = 0;
+        journalLock.readLock().lock();
+        try {
+            for (Item item : items) {
+                ticket = put(item);
+            }
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        afterWrite(ticket);
+        return items;
+    }
+
+    private long put(Item item) {
+        item.setId(sequence.incrementAndGet());
+        item.setVersion(1L);
+        long ticket = journal.append(item);
+        //다른 요청이 이 상품을 수정할 수 있게 되기 전에 발행한다.
+        changeLog.publish(ItemChangeEvent.Type.CREATED, null, item);
+        store.put(item.getId(), item);
+        addToIndexes(item);
+        changed();
+        return ticket;
+    }
+
     public Item findById(Long id) {
         return store.get(id);
     }
@@ -27,15 +161,535 @@ public class ItemRepository {
         return new ArrayList<>(store.values());
     }
 
+    //조회할 때 쓰는 페이지 크기 (1 ~ MAX_PAGE_SIZE)
+    public static int pageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    //페이지 번호를 offset 으로 바꾼다. 조회할 때와 같은 크기로 맞춰서 곱하므로 size 가 범위를 벗어나도 페이지가 어긋나지 않는다.
+    public static int offset(int page, int size) {
+        return (int) Math.min((long) Math.max(page, 0) * pageSize(size), Integer.MAX_VALUE);
+    }
+
+    /**
+     * 정렬 기준의 인덱스를 순서대로 읽으면서 filter 를 통과한 항목 중 offset 부터 limit 개를 반환한다.
+     * filter 가 null 이면 모든 항목을 대상으로 한다.
+     */
+    public ItemPage findPage(int offset, int limit, ItemSort sort, Predicate<Item> filter) {
+        offset = Math.max(offset, 0);
+        limit = pageSize(limit);
+
+        NavigableSet<Item> index = indexes.get(sort.getProperty());
+        Iterator<Item> iterator = sort.isDescending() ? index.descendingIterator() : index.iterator();
+
+        List<Item> content = new ArrayList<>(limit);
+        int skipped = 0;
+        while (iterator.hasNext()) {
+            Item item = iterator.next();
+            if (filter != null && !filter.test(item)) {
+                continue;
+            }
+            if (skipped < offset) {
+                skipped++;
+                continue;
+            }
+            if (content.size() == limit) {
+                return new ItemPage(content, offset, limit, false);
+            }
+            content.add(item);
+        }
+        return new ItemPage(content, offset, limit, true);
+    }
+
+    //상품명이 정확히 같은 상품 (대소문자 구분)
+    public List<Item> findByItemName(String itemName) {
+        return nameIndex.findByName(itemName);
+    }
+
+    /**
+     * 상품명이 prefix 로 시작하는 상품을 대소문자 구분 없이 상품명 순서로 offset 부터 limit 개 반환한다.
+     */
+    public ItemPage findPageByItemNamePrefix(String prefix, int offset, int limit) {
+        offset = Math.max(offset, 0);
+        limit = pageSize(limit);
+
+        return page(nameIndex.findByNamePrefix(prefix).iterator(), offset, limit);
+    }
+
+    /**
+     * 가격이 minPrice 이상 maxPrice 이하인 상품을 가격 순서로 offset 부터 limit 개 반환한다.
+     * 가격 인덱스에서 시작 위치를 O(log n) 으로 찾는다.
+     */
+    public ItemPage findPageByPriceBetween(int minPrice, int maxPrice, int offset, int limit) {
+        return rangePage(ItemSort.Property.PRICE, probe(minPrice, null, Long.MIN_VALUE), probe(maxPrice, null, Long.MAX_VALUE), offset, limit);
+    }
+
+    //수량이 minQuantity 이상 maxQuantity 이하인 상품 (수량 순서)
+    public ItemPage findPageByQuantityBetween(int minQuantity, int maxQuantity, int offset, int limit) {
+        return rangePage(ItemSort.Property.QUANTITY, probe(null, minQuantity, Long.MIN_VALUE), probe(null, maxQuantity, Long.MAX_VALUE), offset, limit);
+    }
+
+    //상품 수와 재고 금액 합계, 최소, 최대 (전체를 읽지 않는다)
+    public ItemStats getStats() {
+        Long minValue = null;
+        Long maxValue = null;
+        if (!valueIndex.isEmpty()) {
+            try {
+                minValue = inventoryValue(valueIndex.first());
+                maxValue = inventoryValue(valueIndex.last());
+            } catch (NoSuchElementException e) {
+                //확인한 뒤에 clearStore() 로 비워진 경우
+            }
+        }
+        return new ItemStats(store.size(), totalValue.get(), minValue, maxValue);
+    }
+
+    private ItemPage rangePage(ItemSort.Property property, Item from, Item to, int offset, int limit) {
+        offset = Math.max(offset, 0);
+        limit = pageSize(limit);
+        NavigableSet<Item> index = indexes.get(property);
+        if (index.comparator().compare(from, to) > 0) {
+            return new ItemPage(new ArrayList<>(), offset, limit, true);
+        }
+        return page(index.subSet(from, true, to, true).iterator(), offset, limit);
+    }
+
+    private static ItemPage page(Iterator<Item> iterator, int offset, int limit) {
+        for (int skipped = 0; skipped < offset && iterator.hasNext(); skipped++) {
+            iterator.next();
+        }
+        List<Item> content = new ArrayList<>(limit);
+        while (iterator.hasNext() && content.size() < limit) {
+            content.add(iterator.next());
+        }
+        return new ItemPage(content, offset, limit, !iterator.hasNext());
+    }
+
+    //인덱스 범위 검색용 기준 값
+    private static Item probe(Integer price, Integer quantity, long id) {
+        Item probe = new Item(null, price, quantity);
+        probe.setId(id);
+        return probe;
+    }
+
+    private static boolean hasValue(Item item) {
+        return item.getPrice() != null && item.getQuantity() != null;
+    }
+
+    //int * int 는 long 범위를 넘지 않는다.
+    private static long inventoryValue(Item item) {
+        return (long) item.getPrice() * item.getQuantity();
+    }
+
     public void update(Long itemId, Item updateParam) {
-        Item findItem = findById(itemId);
-        findItem.setItemName(updateParam.getItemName());
-        findItem.setPrice(updateParam.getPrice());
-        findItem.setQuantity(updateParam.getQuantity());
+        update(itemId, updateParam, null);
+    }
+
+    /**
+     * 저장된 상품의 version 이 expectedVersion 과 같을 때만 수정한다. (낙관적 락)
+     * 저장소 전체를 잠그지 않고 ConcurrentHashMap 의 해당 키에서만 비교 후 교체하므로
+     * 다른 상품의 수정은 기다리지 않는다.
+     *
+     * @param expectedVersion null 이면 비교하지 않는다.
+     * @return 수정했으면 true, 상품이 없거나 다른 요청이 먼저 수정했으면 false
+     */
+    public boolean update(Long itemId, Item updateParam, Long expectedVersion) {
+        long[] ticket = new long[1];
+        boolean[] updated = new boolean[1];
+        journalLock.readLock().lock();
+        try {
+            //공유된 Item을 setter로 직접 수정하지 않고 새 객체로 원자적으로 교체한다.
+            store.computeIfPresent(itemId, (id, findItem) -> {
+                if (expectedVersion != null && !expectedVersion.equals(findItem.getVersion())) {
+                    return findItem;
+                }
+                preserve(findItem);
+                Item newItem = nextVersion(findItem, updateParam);
+                ticket[0] = journal.append(newItem);
+                changeLog.publish(ItemChangeEvent.Type.UPDATED, findItem, newItem);
+                removeFromIndexes(findItem);
+                addToIndexes(newItem);
+                changed();
+                updated[0] = true;
+                return newItem;
+            });
+        } finally {
+            journalLock.readLock().unlock();
+        }
+        afterWrite(ticket[0]);
+        return updated[0];
+    }
+
+    private static Item nextVersion(Item findItem, Item updateParam) {
+        Item newItem = new Item(updateParam.getItemName(), updateParam.getPrice(), updateParam.getQuantity());
+        newItem.setId(findItem.getId());
+        newItem.setVersion(findItem.getVersion() + 1);
+        return newItem;
+    }
+
+    //updates 의 Item.version 은 조회했을 때의 버전이다. (null 이면 비교하지 않는다)
+    public ItemBulkResult updateAll(Map<Long, Item> updates) {
+        return applyAll(updates, List.of());
     }
 
+    //이미 없는 id 는 무시한다.
+    public ItemBulkResult deleteByIds(Collection<Long> ids) {
+        return applyAll(Map.of(), ids);
+    }
+
+    //filter 를 통과한 상품을 모두 삭제한다. 고르는 동안에도 다른 변경은 기다린다.
+    public ItemBulkResult deleteWhere(Predicate<Item> filter) {
+        ItemBulkResult result = new ItemBulkResult();
+        long ticket;
+        journalLock.writeLock().lock();
+        try {
+            List<Long> ids = new ArrayList<>();
+            for (Item item : store.values()) {
+                if (filter.test(item)) {
+                    ids.add(item.getId());
+                }
+            }
+            ticket = applyLocked(Map.of(), ids, result);
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+        afterWrite(ticket);
+        return result;
+    }
+
+    /**
+     * 여러 상품을 한 번에 수정, 삭제한다. 수정할 상품이 하나라도 없거나 version 이 다르면 (삭제할 id 와 겹쳐도)
+     * 아무것도 바꾸지 않는다. 쓰기 락 안에서 확인과 반영을 한 번에 하므로 다른 변경이 중간에 끼어들지 않고,
+     * 로그에는 기록 하나로 남기고 디스크 반영(sync)도 마지막에 한 번만 한다. (조회는 잠그지 않으므로 반영 중인 상태가 보일 수 있다)
+     *
+     * @param updates id -> 수정할 값, Item.version 은 조회했을 때의 버전이다. (null 이면 비교하지 않는다)
+     * @param deleteIds 삭제할 id, 이미 없는 id 는 무시한다.
+     */
+    public ItemBulkResult applyAll(Map<Long, Item> updates, Collection<Long> deleteIds) {
+        ItemBulkResult result = new ItemBulkResult();
+        long ticket;
+        journalLock.writeLock().lock();
+        try {
+            ticket = applyLocked(updates, deleteIds, result);
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+        afterWrite(ticket);
+        return result;
+    }
+
+    private long applyLocked(Map<Long, Item> updates, Collection<Long> deleteIds, ItemBulkResult result) {
+        Set<Long> deletes = new LinkedHashSet<>(deleteIds);
+        //쓰기 락을 잡고 있으므로 확인한 뒤에 바뀌지 않는다.
+        for (Map.Entry<Long, Item> entry : updates.entrySet()) {
+            Item findItem = store.get(entry.getKey());
+            Long expectedVersion = entry.getValue().getVersion();
+            if (findItem == null || deletes.contains(entry.getKey())
+                    || (expectedVersion != null && !expectedVersion.equals(findItem.getVersion()))) {
+                result.getConflicts().add(entry.getKey());
+            }
+        }
+        if (!result.isApplied()) {
+            return 0;
+        }
+
+        //반영할 내용을 먼저 만들어서 기록 하나로 남긴다. 중간에 종료되어도 일부만 복구되지 않는다.
+        Map<Long, Item> newItems = new LinkedHashMap<>();
+        for (Map.Entry<Long, Item> entry : updates.entrySet()) {
+            newItems.put(entry.getKey(), nextVersion(store.get(entry.getKey()), entry.getValue()));
+        }
+        List<Long> existingDeletes = new ArrayList<>();
+        for (Long deleteId : deletes) {
+            if (store.containsKey(deleteId)) {
+                existingDeletes.add(deleteId);
+            }
+        }
+        if (newItems.isEmpty() && existingDeletes.isEmpty()) {
+            return 0;
+        }
+        long ticket = journal.appendBatch(newItems.values(), existingDeletes);
+
+        for (Item newItem : newItems.values()) {
+            //스냅샷 내보내기와 같은 키 잠금 안에서 변경 전 상품을 보관한다.
+            store.computeIfPresent(newItem.getId(), (id, findItem) -> {
+                preserve(findItem);
+                changeLog.publish(ItemChangeEvent.Type.UPDATED, findItem, newItem);
+                removeFromIndexes(findItem);
+                addToIndexes(newItem);
+                result.getUpdated().add(id);
+                return newItem;
+            });
+        }
+        for (Long deleteId : existingDeletes) {
+            store.computeIfPresent(deleteId, (id, findItem) -> {
+                preserve(findItem);
+                changeLog.publish(ItemChangeEvent.Type.DELETED, findItem, null);
+                removeFromIndexes(findItem);
+                result.getDeleted().add(id);
+                return null;
+            });
+        }
+        changed();
+        return ticket;
+    }
+
+    /**
+     * 호출한 시점의 상품들을 id 순서로 sink 에 넘긴다. 내보내는 동안에도 변경을 막지 않는다.
+     * 아직 내보내지 않은 상품을 수정, 삭제하면 변경 전 상품을 따로 보관해뒀다가 그 상품을 넘긴다.
+     * 시작한 뒤에 저장된 상품은 포함하지 않는다.
+     *
+     * @return 넘긴 상품 수
+     */
+    public long snapshot(Consumer<Item> sink) {
+        synchronized (snapshotLock) {
+            Snapshot current = new Snapshot(sequence.get());
+            snapshot = current;
+            try {
+                long count = 0;
+                Item[] found = new Item[1];
+                for (long id = 1; id <= current.maxId; id++) {
+                    //수정과 같은 키 잠금 안에서 위치를 옮기므로, 수정하는 쪽은 이 상품을 이미 내보냈는지 정확히 알 수 있다.
+                    found[0] = null;
+                    store.computeIfPresent(id, (key, item) -> {
+                        current.cursor = key;
+                        found[0] = item;
+                        return item;
+                    });
+                    current.cursor = id;
+                    Item before = current.preimages.get(id);
+                    Item item = before != null ? before : found[0];
+                    if (item != null) {
+                        sink.accept(item);
+                        count++;
+                    }
+                }
+                return count;
+            } finally {
+                snapshot = null;
+            }
+        }
+    }
+
+    /**
+     * 호출한 시점의 상품들을 바이너리 스냅샷으로 쓴다. (형식은 ItemSnapshotWriter 참고)
+     * 다 쓰고 나면 out 을 닫는다.
+     *
+     * @return 쓴 상품 수
+     */
+    public long exportSnapshot(WritableByteChannel out, boolean compress) throws IOException {
+        try (ItemSnapshotWriter writer = new ItemSnapshotWriter(out, compress)) {
+            snapshot(item -> {
+                try {
+                    writer.write(item);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            return writer.getCount();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 스냅샷을 읽어서 저장소를 교체한다. 검증 없이 그대로 가져오므로 신뢰할 수 있는 스냅샷만 사용해야 한다.
+     * 끝까지 읽은 뒤에 교체하므로 입력이 느려도 다른 변경을 막지 않고, 스냅샷이 손상되었으면 저장소는 그대로다.
+     * (읽은 상품 객체를 그대로 저장하므로 추가로 드는 메모리는 참조 목록 정도다)
+     *
+     * @return 가져온 상품 수
+     */
+    public long importSnapshot(ReadableByteChannel in) throws IOException {
+        List<Item> items = new ArrayList<>();
+        try (ItemSnapshotReader reader = new ItemSnapshotReader(in)) {
+            reader.forEachRemaining(items::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return replaceAll(items.iterator());
+    }
+
+    /**
+     * 저장소를 비우고 items 로 교체한다. id, version 은 그대로 유지한다. (스냅샷 가져오기)
+     * 교체하는 동안 다른 변경은 기다리고, 진행 중인 스냅샷 내보내기가 있으면 끝난 뒤에 시작한다.
+     *
+     * @return 가져온 상품 수
+     */
+    public long replaceAll(Iterator<Item> items) {
+        synchronized (snapshotLock) {
+            return replaceAllLocked(items);
+        }
+    }
+
+    private long replaceAllLocked(Iterator<Item> items) {
+        long count = 0;
+        long ticket;
+        journalLock.writeLock().lock();
+        try {
+            ticket = journal.appendClear();
+            changeLog.publish(ItemChangeEvent.Type.CLEARED, null, null);
+            clearMemory();
+            newEpoch();
+            sequence.set(0);
+            while (items.hasNext()) {
+                Item item = items.next();
+                ticket = journal.append(item);
+                changeLog.publish(ItemChangeEvent.Type.CREATED, null, item);
+                restore(item);
+                count++;
+            }
+            changed();
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+        clearIdempotencyKeys();
+        afterWrite(ticket);
+        return count;
+    }
+
+    //저장, 수정, 삭제 이벤트 (재시작 전 변경이나 기록을 다시 적용한 것은 포함하지 않는다)
+    public ItemChangeLog getChangeLog() {
+        return changeLog;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    //시계가 뒤로 가도 이전 세대와 겹치지 않도록 항상 증가시킨다.
+    private void newEpoch() {
+        epoch = Math.max(System.currentTimeMillis(), epoch + 1);
+    }
+
+    private void changed() {
+        lastModified = System.currentTimeMillis();
+        version.incrementAndGet();
+    }
+
+    public int count() {
+        return store.size();
+    }
+
+    //비우는 동안 다른 변경은 기다린다. (CLEARED 이벤트 앞뒤로 변경이 섞이지 않는다)
     public void clearStore() {
+        long ticket;
+        journalLock.writeLock().lock();
+        try {
+            ticket = journal.appendClear();
+            changeLog.publish(ItemChangeEvent.Type.CLEARED, null, null);
+            clearMemory();
+            newEpoch();
+            changed();
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+        clearIdempotencyKeys();
+        afterWrite(ticket);
+    }
+
+    //같은 키로 저장 중인 요청은 computeIfAbsent 안에서 락을 기다리므로, 락을 잡은 채로 지우면 서로 기다리게 된다.
+    private void clearIdempotencyKeys() {
+        idempotencyKeys.clear();
+        idempotencyKeyOrder.clear();
+    }
+
+    //기록이 디스크에 반영된 뒤에 반환한다. (그룹 커밋)
+    private void afterWrite(long ticket) {
+        journal.sync(ticket);
+        if (journal.needsCompaction(store.size())) {
+            compactJournal();
+        }
+    }
+
+    public void compactJournal() {
+        journalLock.writeLock().lock();
+        try {
+            journal.compact(store.values());
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+    }
+
+    private void restore(Item item) {
+        Item previous = store.put(item.getId(), item);
+        if (previous != null) {
+            removeFromIndexes(previous);
+        }
+        addToIndexes(item);
+        sequence.accumulateAndGet(item.getId(), Math::max);
+    }
+
+    private void evict(long id) {
+        Item previous = store.remove(id);
+        if (previous != null) {
+            removeFromIndexes(previous);
+        }
+    }
+
+    private void clearMemory() {
+        if (snapshot != null) {
+            store.values().forEach(this::preserve);
+        }
         store.clear();
+        for (NavigableSet<Item> index : indexes.values()) {
+            index.clear();
+        }
+        nameIndex.clear();
+        valueIndex.clear();
+        totalValue.set(0);
     }
 
+    //진행 중인 스냅샷이 아직 내보내지 않은 상품이면 변경 전 상품을 보관한다.
+    private void preserve(Item item) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.preserve(item);
+        }
+    }
+
+    private void addToIndexes(Item item) {
+        for (NavigableSet<Item> index : indexes.values()) {
+            index.add(item);
+        }
+        nameIndex.add(item);
+        if (hasValue(item)) {
+            valueIndex.add(item);
+            totalValue.addAndGet(inventoryValue(item));
+        }
+    }
+
+    private void removeFromIndexes(Item item) {
+        for (NavigableSet<Item> index : indexes.values()) {
+            index.remove(item);
+        }
+        nameIndex.remove(item);
+        if (hasValue(item) && valueIndex.remove(item)) {
+            totalValue.addAndGet(-inventoryValue(item));
+        }
+    }
+
+    private static final class Snapshot {
+        private final long maxId;
+        private final Map<Long, Item> preimages = new ConcurrentHashMap<>();
+        //이 id 까지는 내보냈다.
+        private volatile long cursor;
+
+        Snapshot(long maxId) {
+            this.maxId = maxId;
+        }
+
+        void preserve(Item item) {
+            long id = item.getId();
+            if (id > cursor && id <= maxId) {
+                preimages.putIfAbsent(id, item);
+            }
+        }
+    }
 }
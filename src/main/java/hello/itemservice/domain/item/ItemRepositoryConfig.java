@@ -0,0 +1,24 @@
+package hello.itemservice.domain.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+
+/**
+ * item.repository.mode=memory : 메모리에만 보관 (기본값, 재시작하면 사라진다)
+ * item.repository.mode=file   : item.repository.file 에 변경 내역을 기록하고 시작할 때 복구한다.
+ */
+@Configuration
+public class ItemRepositoryConfig {
+
+    @Bean(destroyMethod = "close")
+    public ItemJournal itemJournal(@Value("${item.repository.mode:memory}") String mode,
+                                   @Value("${item.repository.file:data/items.log}") String file) {
+        if ("file".equals(mode)) {
+            return new MemoryMappedItemJournal(Paths.get(file));
+        }
+        return ItemJournal.NONE;
+    }
+}
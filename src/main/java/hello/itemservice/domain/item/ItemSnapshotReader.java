@@ -0,0 +1,172 @@
+package hello.itemservice.domain.item;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+
+import static hello.itemservice.domain.item.ItemSnapshotWriter.*;
+
+/**
+ * ItemSnapshotWriter 가 쓴 스냅샷을 앞에서부터 한 건씩 읽는다. 형식은 ItemSnapshotWriter 참고.
+ * 형식이 맞지 않거나 끝 표시 전에 입력이 끝나면 IllegalArgumentException 이 발생한다.
+ * 기록 길이가 MAX_RECORD_LENGTH 보다 크면 메모리를 할당하기 전에 손상된 것으로 본다.
+ */
+public class ItemSnapshotReader implements Iterator<Item>, Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final ReadableByteChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private Item next;
+    private boolean finished;
+
+    public ItemSnapshotReader(ReadableByteChannel in) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(MAGIC.length + 2);
+        while (header.hasRemaining()) {
+            if (in.read(header) < 0) {
+                throw new IllegalArgumentException("스냅샷 헤더가 없습니다.");
+            }
+        }
+        header.flip();
+        byte[] magic = new byte[MAGIC.length];
+        header.get(magic);
+        if (!Arrays.equals(magic, MAGIC) || header.get() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("지원하지 않는 스냅샷 형식입니다.");
+        }
+        boolean compressed = (header.get() & GZIP) != 0;
+        this.channel = compressed
+                ? Channels.newChannel(new GZIPInputStream(Channels.newInputStream(in), BUFFER_SIZE))
+                : in;
+        buffer.flip();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public Item next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Item item = next;
+        next = null;
+        return item;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private Item read() throws IOException {
+        int length = readLength();
+        if (length == 0) {
+            finished = true;
+            return null;
+        }
+        if (length < 0 || length > MAX_RECORD_LENGTH) {
+            throw new IllegalArgumentException("잘못된 기록 길이입니다. length=" + length);
+        }
+        fill(length);
+        int end = buffer.position() + length;
+        try {
+            byte flags = buffer.get();
+            Item item = new Item();
+            item.setId(getVarLong(buffer));
+            if ((flags & NULL_VERSION) == 0) item.setVersion(getVarLong(buffer));
+            if ((flags & NULL_PRICE) == 0) item.setPrice(unZigZag(getVarLong(buffer)));
+            if ((flags & NULL_QUANTITY) == 0) item.setQuantity(unZigZag(getVarLong(buffer)));
+            if ((flags & NULL_NAME) == 0) {
+                int nameLength = (int) getVarLong(buffer);
+                if (nameLength < 0 || nameLength > end - buffer.position()) {
+                    throw new BufferUnderflowException();
+                }
+                item.setItemName(new String(buffer.array(), buffer.arrayOffset() + buffer.position(), nameLength, StandardCharsets.UTF_8));
+                buffer.position(buffer.position() + nameLength);
+            }
+            //이후 버전에서 뒤에 추가된 값은 건너뛴다.
+            buffer.position(end);
+            return item;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("스냅샷 기록이 손상되었습니다.", e);
+        }
+    }
+
+    //기록 길이 varint, 버퍼 경계에 걸칠 수 있으므로 한 byte 씩 채우면서 읽는다.
+    private int readLength() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            fill(1);
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("잘못된 기록 길이입니다.");
+    }
+
+    //버퍼에 최소 size byte 가 남도록 채운다. 버퍼보다 큰 기록이면 버퍼를 늘린다.
+    private void fill(int size) throws IOException {
+        if (buffer.remaining() >= size) {
+            return;
+        }
+        if (buffer.capacity() < size) {
+            ByteBuffer larger = ByteBuffer.allocate(size);
+            larger.put(buffer);
+            larger.flip();
+            buffer = larger;
+        }
+        while (buffer.remaining() < size) {
+            if (refill() < 0) {
+                throw new IllegalArgumentException("스냅샷이 끝 표시 전에 끝났습니다.");
+            }
+        }
+    }
+
+    private int refill() throws IOException {
+        buffer.compact();
+        int read;
+        try {
+            read = channel.read(buffer);
+        } finally {
+            buffer.flip();
+        }
+        return read;
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("잘못된 varint 입니다.");
+    }
+
+    private static int unZigZag(long value) {
+        int n = (int) value;
+        return (n >>> 1) ^ -(n & 1);
+    }
+}
@@ -0,0 +1,130 @@
+package hello.itemservice.domain.item;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 상품 스냅샷을 바이너리로 쓴다.
+ *
+ * 헤더: [magic "ITMS" 4byte][형식 버전 byte][옵션 byte (1 = 본문 gzip)]
+ * 본문: [기록 길이 varint][기록] 반복, 길이 0 이 끝
+ * 기록: [flags byte][id varint][version varint][price zigzag varint][quantity zigzag varint][이름 길이 varint][이름 UTF-8]
+ * null 값은 flags 에 표시하고 값은 쓰지 않는다. 기록 하나는 MAX_RECORD_LENGTH 를 넘을 수 없다.
+ *
+ * 기록을 버퍼에 모았다가 채널로 한 번에 내보낸다. 여러 스레드에서 동시에 사용할 수 없다.
+ */
+public class ItemSnapshotWriter implements Closeable {
+
+    static final byte[] MAGIC = {'I', 'T', 'M', 'S'};
+    static final byte FORMAT_VERSION = 1;
+    static final byte GZIP = 1;
+
+    static final byte NULL_NAME = 1;
+    static final byte NULL_PRICE = 2;
+    static final byte NULL_QUANTITY = 4;
+    static final byte NULL_VERSION = 8;
+
+    //읽는 쪽에서 기록 길이만 보고 메모리를 할당하므로 상한을 둔다.
+    static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    //이름을 뺀 기록의 최대 크기: flags + varint long 2개 + zigzag varint int 2개 + 이름 길이
+    private static final int MAX_FIXED_SIZE = 1 + 10 + 10 + 5 + 5 + 5;
+
+    private final WritableByteChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private ByteBuffer record = ByteBuffer.allocate(256);
+    private long count;
+
+    public ItemSnapshotWriter(WritableByteChannel out, boolean compress) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(MAGIC.length + 2);
+        header.put(MAGIC).put(FORMAT_VERSION).put(compress ? GZIP : 0).flip();
+        while (header.hasRemaining()) {
+            out.write(header);
+        }
+        this.channel = compress
+                ? Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(out), BUFFER_SIZE))
+                : out;
+    }
+
+    public void write(Item item) throws IOException {
+        byte[] name = item.getItemName() == null ? null : item.getItemName().getBytes(StandardCharsets.UTF_8);
+        int maxSize = MAX_FIXED_SIZE + (name == null ? 0 : name.length);
+        if (maxSize > MAX_RECORD_LENGTH) {
+            throw new IllegalArgumentException("상품명이 너무 길어서 스냅샷에 쓸 수 없습니다. id=" + item.getId());
+        }
+        if (record.capacity() < maxSize) {
+            record = ByteBuffer.allocate(maxSize);
+        }
+
+        record.clear();
+        byte flags = 0;
+        if (name == null) flags |= NULL_NAME;
+        if (item.getPrice() == null) flags |= NULL_PRICE;
+        if (item.getQuantity() == null) flags |= NULL_QUANTITY;
+        if (item.getVersion() == null) flags |= NULL_VERSION;
+        record.put(flags);
+        putVarLong(record, item.getId());
+        if (item.getVersion() != null) putVarLong(record, item.getVersion());
+        if (item.getPrice() != null) putVarLong(record, zigZag(item.getPrice()));
+        if (item.getQuantity() != null) putVarLong(record, zigZag(item.getQuantity()));
+        if (name != null) {
+            putVarLong(record, name.length);
+            record.put(name);
+        }
+        record.flip();
+
+        if (buffer.remaining() < 5 + record.remaining()) {
+            flush();
+            if (buffer.capacity() < 5 + record.remaining()) {
+                buffer = ByteBuffer.allocate(5 + record.remaining());
+            }
+        }
+        putVarLong(buffer, record.remaining());
+        buffer.put(record);
+        count++;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    //끝 표시(길이 0)를 쓰고 닫는다. 전달받은 채널도 함께 닫힌다.
+    @Override
+    public void close() throws IOException {
+        try {
+            if (buffer.remaining() < 1) {
+                flush();
+            }
+            buffer.put((byte) 0);
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    static long zigZag(int value) {
+        return ((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL;
+    }
+
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+}
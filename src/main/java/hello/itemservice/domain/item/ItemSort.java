@@ -0,0 +1,67 @@
+package hello.itemservice.domain.item;
+
+import java.util.Comparator;
+
+/**
+ * 상품 목록 정렬 기준
+ * "price", "price,desc" 형식의 sort 파라미터를 받는다. 잘못된 값은 id 오름차순으로 처리한다.
+ */
+public class ItemSort {
+
+    public enum Property {
+        ID("id", Comparator.comparing(Item::getId)),
+        ITEM_NAME("itemName", Comparator.comparing(Item::getItemName, Comparator.nullsFirst(Comparator.naturalOrder()))),
+        PRICE("price", Comparator.comparing(Item::getPrice, Comparator.nullsFirst(Comparator.naturalOrder()))),
+        QUANTITY("quantity", Comparator.comparing(Item::getQuantity, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        private final String parameter;
+        private final Comparator<Item> comparator;
+
+        Property(String parameter, Comparator<Item> comparator) {
+            //값이 같으면 id 로 순서를 정해서 인덱스 안에서 항목이 겹치지 않게 한다.
+            this.parameter = parameter;
+            this.comparator = parameter.equals("id") ? comparator : comparator.thenComparing(Item::getId);
+        }
+
+        public Comparator<Item> comparator() {
+            return comparator;
+        }
+    }
+
+    public static final ItemSort DEFAULT = new ItemSort(Property.ID, false);
+
+    private final Property property;
+    private final boolean descending;
+
+    public ItemSort(Property property, boolean descending) {
+        this.property = property;
+        this.descending = descending;
+    }
+
+    public static ItemSort parse(String sort) {
+        if (sort == null) {
+            return DEFAULT;
+        }
+        String[] parts = sort.split(",");
+        for (Property property : Property.values()) {
+            if (property.parameter.equals(parts[0].trim())) {
+                boolean descending = parts.length > 1 && "desc".equalsIgnoreCase(parts[1].trim());
+                return new ItemSort(property, descending);
+            }
+        }
+        return DEFAULT;
+    }
+
+    public Property getProperty() {
+        return property;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    @Override
+    public String toString() {
+        return property.parameter + (descending ? ",desc" : ",asc");
+    }
+}
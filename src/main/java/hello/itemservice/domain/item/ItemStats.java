@@ -0,0 +1,23 @@
+package hello.itemservice.domain.item;
+
+import lombok.Getter;
+
+/**
+ * 상품 재고 금액(가격 * 수량) 집계. 가격이나 수량이 없는 상품은 금액 집계에서 제외된다.
+ * minValue, maxValue 는 금액을 계산할 수 있는 상품이 없으면 null 이다.
+ */
+@Getter
+public class ItemStats {
+
+    private final long count;
+    private final long totalValue;
+    private final Long minValue;
+    private final Long maxValue;
+
+    public ItemStats(long count, long totalValue, Long minValue, Long maxValue) {
+        this.count = count;
+        this.totalValue = totalValue;
+        this.minValue = minValue;
+        this.maxValue = maxValue;
+    }
+}
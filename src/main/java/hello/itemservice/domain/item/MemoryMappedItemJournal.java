@@ -0,0 +1,326 @@
+package hello.itemservice.domain.item;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * 메모리 맵 파일에 변경 내역을 이어서 기록하는 로그
+ *
+ * 기록 형식: [길이 int][crc32 int][본문]
+ * 본문: PUT  = [type byte][flags byte][id long][version long][price int][quantity int][이름 길이 int][이름 UTF-8]
+ *      DELETE = [type byte][id long]
+ *      CLEAR = [type byte]
+ *      BATCH = [type byte][PUT 수 int]([PUT 본문 길이 int][PUT 본문]) 반복 [DELETE 수 int][id long] 반복
+ *      (BATCH 는 crc 하나로 묶이므로 잘리면 전체를 무시한다)
+ *
+ * sync() 는 그룹 커밋으로 동작한다. 한 스레드가 force() 하는 동안 기다린 다른 스레드들의 기록도 함께 반영된다.
+ * 비정상 종료로 마지막 기록이 잘린 경우 crc 가 맞지 않으므로 그 앞까지만 복구한다.
+ *
+ * 위치를 int 로 다루므로 파일은 maxSize(기본 MAX_SIZE, 약 2GB) 를 넘을 수 없다. 절반을 넘으면 압축 대상이 되고,
+ * 압축해도 살아있는 상품만으로 가득 차면 기록하지 않고 IllegalStateException 이 발생한다. (메모리에도 반영되지 않는다)
+ */
+public class MemoryMappedItemJournal implements ItemJournal {
+
+    static final int INITIAL_SIZE = 16 * 1024 * 1024;
+    static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+    static final int COMPACT_MIN_RECORDS = 10_000;
+
+    private static final int HEADER_SIZE = 8;
+    private static final byte PUT = 1;
+    private static final byte CLEAR = 2;
+    private static final byte DELETE = 3;
+    private static final byte BATCH = 4;
+
+    private static final byte NULL_NAME = 1;
+    private static final byte NULL_PRICE = 2;
+    private static final byte NULL_QUANTITY = 4;
+
+    private final Path path;
+    private final int maxSize;
+    private final Object syncMonitor = new Object();
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int records;
+    private long appended;
+    private volatile long synced;
+
+    public MemoryMappedItemJournal(Path path) {
+        this(path, MAX_SIZE);
+    }
+
+    MemoryMappedItemJournal(Path path, int maxSize) {
+        this.path = path;
+        this.maxSize = maxSize;
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            open();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = Math.min(Math.max(channel.size(), INITIAL_SIZE), maxSize);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        //유효한 마지막 기록 뒤에서부터 이어서 쓴다.
+        records = 0;
+        int position = 0;
+        int next;
+        while ((next = nextRecord(position)) > 0) {
+            position = next;
+            records++;
+        }
+        buffer.position(position);
+    }
+
+    @Override
+    public synchronized long append(Item item) {
+        return write(encode(item));
+    }
+
+    @Override
+    public synchronized long appendDelete(long id) {
+        return write(ByteBuffer.allocate(1 + 8).put(DELETE).putLong(id).array());
+    }
+
+    @Override
+    public synchronized long appendClear() {
+        return write(new byte[]{CLEAR});
+    }
+
+    @Override
+    public synchronized long appendBatch(Collection<Item> items, Collection<Long> deleteIds) {
+        List<byte[]> puts = new ArrayList<>(items.size());
+        int length = 1 + 4 + 4 + deleteIds.size() * 8;
+        for (Item item : items) {
+            byte[] put = encode(item);
+            puts.add(put);
+            length += 4 + put.length;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length);
+        body.put(BATCH).putInt(puts.size());
+        for (byte[] put : puts) {
+            body.putInt(put.length).put(put);
+        }
+        body.putInt(deleteIds.size());
+        for (Long id : deleteIds) {
+            body.putLong(id);
+        }
+        return write(body.array());
+    }
+
+    private long write(byte[] body) {
+        ensureCapacity(HEADER_SIZE + body.length);
+        buffer.putInt(body.length).putInt(checksum(body)).put(body);
+        records++;
+        return ++appended;
+    }
+
+    private static byte[] encode(Item item) {
+        byte[] name = item.getItemName() == null ? new byte[0] : item.getItemName().getBytes(StandardCharsets.UTF_8);
+        byte flags = 0;
+        if (item.getItemName() == null) {
+            flags |= NULL_NAME;
+        }
+        if (item.getPrice() == null) {
+            flags |= NULL_PRICE;
+        }
+        if (item.getQuantity() == null) {
+            flags |= NULL_QUANTITY;
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(1 + 1 + 8 + 8 + 4 + 4 + 4 + name.length);
+        body.put(PUT).put(flags).putLong(item.getId()).putLong(item.getVersion())
+                .putInt(item.getPrice() == null ? 0 : item.getPrice())
+                .putInt(item.getQuantity() == null ? 0 : item.getQuantity())
+                .putInt(name.length).put(name);
+        return body.array();
+    }
+
+    private static int checksum(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.remaining() >= length) {
+            return;
+        }
+        int position = buffer.position();
+        if ((long) position + length > maxSize) {
+            throw new IllegalStateException("저널 파일이 최대 크기에 도달했습니다. path=" + path + ", maxSize=" + maxSize);
+        }
+        long size = Math.min(Math.max((long) buffer.capacity() * 2, (long) position + length), maxSize);
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.position(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void sync(long ticket) {
+        if (synced >= ticket) {
+            return;
+        }
+        synchronized (syncMonitor) {
+            if (synced >= ticket) {
+                return; //다른 스레드의 force() 에 함께 반영됨
+            }
+            long upTo;
+            MappedByteBuffer target;
+            synchronized (this) {
+                upTo = appended;
+                target = buffer;
+            }
+            target.force();
+            synced = upTo;
+        }
+    }
+
+    @Override
+    public synchronized void replay(Consumer<Item> onPut, LongConsumer onDelete, Runnable onClear) {
+        int end = buffer.position();
+        int position = 0;
+        while (position < end) {
+            int length = buffer.getInt(position);
+            ByteBuffer body = buffer.duplicate();
+            body.position(position + HEADER_SIZE).limit(position + HEADER_SIZE + length);
+
+            byte type = body.get();
+            if (type == CLEAR) {
+                onClear.run();
+            } else if (type == DELETE) {
+                onDelete.accept(body.getLong());
+            } else if (type == BATCH) {
+                for (int puts = body.getInt(); puts > 0; puts--) {
+                    int putLength = body.getInt();
+                    ByteBuffer put = body.slice();
+                    put.limit(putLength);
+                    put.get(); //PUT
+                    onPut.accept(readItem(put));
+                    body.position(body.position() + putLength);
+                }
+                for (int deletes = body.getInt(); deletes > 0; deletes--) {
+                    onDelete.accept(body.getLong());
+                }
+            } else {
+                onPut.accept(readItem(body));
+            }
+            position += HEADER_SIZE + length;
+        }
+    }
+
+    private Item readItem(ByteBuffer body) {
+        byte flags = body.get();
+        long id = body.getLong();
+        long version = body.getLong();
+        int price = body.getInt();
+        int quantity = body.getInt();
+        byte[] name = new byte[body.getInt()];
+        body.get(name);
+
+        Item item = new Item(
+                (flags & NULL_NAME) != 0 ? null : new String(name, StandardCharsets.UTF_8),
+                (flags & NULL_PRICE) != 0 ? null : price,
+                (flags & NULL_QUANTITY) != 0 ? null : quantity);
+        item.setId(id);
+        item.setVersion(version);
+        return item;
+    }
+
+    /**
+     * position 의 기록이 온전하면 다음 기록의 위치를, 아니면 -1 을 반환한다.
+     */
+    private int nextRecord(int position) {
+        if (position + HEADER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+        int length = buffer.getInt(position);
+        if (length <= 0 || (long) position + HEADER_SIZE + length > buffer.capacity()) {
+            return -1;
+        }
+        byte[] body = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(position + HEADER_SIZE);
+        view.get(body);
+
+        if (checksum(body) != buffer.getInt(position + 4)) {
+            return -1;
+        }
+        return position + HEADER_SIZE + length;
+    }
+
+    @Override
+    public synchronized boolean needsCompaction(int liveCount) {
+        return records > Math.max(COMPACT_MIN_RECORDS, liveCount * 2)
+                || (buffer.position() > maxSize / 2 && records - liveCount > liveCount / 4);
+    }
+
+    @Override
+    public void compact(Collection<Item> items) {
+        //sync() 와 같은 순서(syncMonitor -> this)로 잠근다.
+        synchronized (syncMonitor) {
+            synchronized (this) {
+                Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+                try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    for (Item item : items) {
+                        byte[] body = encode(item);
+                        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + body.length);
+                        record.putInt(body.length).putInt(checksum(body)).put(body).flip();
+                        while (record.hasRemaining()) {
+                            out.write(record);
+                        }
+                    }
+                    out.force(true);
+
+                    buffer.force();
+                    channel.close();
+                    Files.move(compacted, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    open();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                synced = appended;
+            }
+        }
+    }
+
+    //비정상 종료를 흉내낸다. force() 없이 파일만 닫는다. (테스트)
+    synchronized void abandon() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public synchronized void close() {
+        buffer.force();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package hello.itemservice.message;
+
+import org.springframework.validation.DefaultMessageCodesResolver;
+import org.springframework.validation.MessageCodesResolver;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DefaultMessageCodesResolver 결과를 (errorCode, objectName, field, type) 단위로 캐시한다.
+ * rejectValue("price", "range") 마다 range.item.price, range.price, range.java.lang.Integer, range
+ * 4개의 문자열을 새로 만들지 않고 같은 배열을 재사용한다.
+ * 반환된 배열은 여러 FieldError 가 공유하므로 수정하면 안 된다.
+ */
+public class CachingMessageCodesResolver implements MessageCodesResolver {
+
+    //items[0].price 처럼 인덱스가 붙은 필드로 키가 계속 늘어나는 것을 막는다.
+    static final int MAX_CACHE_SIZE = 10_000;
+
+    private final MessageCodesResolver delegate;
+    private final Map<CodesKey, String[]> cache = new ConcurrentHashMap<>();
+
+    public CachingMessageCodesResolver() {
+        this(new DefaultMessageCodesResolver());
+    }
+
+    public CachingMessageCodesResolver(MessageCodesResolver delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String[] resolveMessageCodes(String errorCode, String objectName) {
+        CodesKey key = new CodesKey(errorCode, objectName, null, null);
+        String[] codes = cache.get(key);
+        if (codes == null) {
+            codes = cacheIfRoom(key, delegate.resolveMessageCodes(errorCode, objectName));
+        }
+        return codes;
+    }
+
+    @Override
+    public String[] resolveMessageCodes(String errorCode, String objectName, String field, Class<?> fieldType) {
+        CodesKey key = new CodesKey(errorCode, objectName, field, fieldType);
+        String[] codes = cache.get(key);
+        if (codes == null) {
+            codes = cacheIfRoom(key, delegate.resolveMessageCodes(errorCode, objectName, field, fieldType));
+        }
+        return codes;
+    }
+
+    //캐시할 때만 intern 한다. 가득 차면 만든 배열을 그대로 반환한다. (한 번 쓰고 버릴 문자열을 intern 하지 않는다)
+    private String[] cacheIfRoom(CodesKey key, String[] codes) {
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            return codes;
+        }
+        String[] existing = cache.putIfAbsent(key, intern(codes));
+        return existing != null ? existing : codes;
+    }
+
+    private static String[] intern(String[] codes) {
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = codes[i].intern();
+        }
+        return codes;
+    }
+
+    private static final class CodesKey {
+        private final String errorCode;
+        private final String objectName;
+        private final String field;
+        private final Class<?> fieldType;
+
+        CodesKey(String errorCode, String objectName, String field, Class<?> fieldType) {
+            this.errorCode = errorCode;
+            this.objectName = objectName;
+            this.field = field;
+            this.fieldType = fieldType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CodesKey)) {
+                return false;
+            }
+            CodesKey other = (CodesKey) o;
+            return Objects.equals(errorCode, other.errorCode) && Objects.equals(objectName, other.objectName)
+                    && Objects.equals(field, other.field) && fieldType == other.fieldType;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(errorCode, objectName, field, fieldType);
+        }
+    }
+}
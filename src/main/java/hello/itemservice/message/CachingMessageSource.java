@@ -0,0 +1,114 @@
+package hello.itemservice.message;
+
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FieldError, ObjectError 처럼 여러 코드를 가진 메시지를 찾을 때
+ * (코드 목록, Locale) 별로 처음 찾은 코드를 기억해서 다음부터는 한 번만 조회한다.
+ * required.item.itemName -> required.itemName -> required.java.lang.String -> required 순서로
+ * 매번 찾지 않아도 된다.
+ *
+ * 기억하는 것은 찾은 코드뿐이다. 인자를 넣어 메시지를 만드는 것은 매번 delegate 가 한다.
+ * (PrecompiledMessageSource 는 단순한 {n} 패턴을 MessageFormat 없이 만든다)
+ * 조회할 때 코드 배열을 감싸는 List 하나를 만든다. Locale 마다 MAX_CACHE_SIZE 개까지만 기억한다.
+ */
+public class CachingMessageSource implements MessageSource {
+
+    //items[0].price 처럼 인덱스가 붙은 필드로 코드 목록이 계속 늘어나는 것을 막는다.
+    static final int MAX_CACHE_SIZE = 10_000;
+
+    //어떤 코드로도 찾지 못한 경우 (기본 메시지 사용)
+    private static final String NO_MATCH = new String("<no match>");
+    //PrecompiledMessageSource 가 아닌 delegate 에서 메시지가 없을 때 돌려받는 기본 메시지
+    private static final String ABSENT = "<absent:" + CachingMessageSource.class.getName() + ">";
+
+    private final MessageSource delegate;
+    private final Map<Locale, Map<List<String>, String>> resolvedCodes = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public CachingMessageSource(MessageSource delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String getMessage(String code, Object[] args, String defaultMessage, Locale locale) {
+        return delegate.getMessage(code, args, defaultMessage, locale);
+    }
+
+    @Override
+    public String getMessage(String code, Object[] args, Locale locale) throws NoSuchMessageException {
+        return delegate.getMessage(code, args, locale);
+    }
+
+    @Override
+    public String getMessage(MessageSourceResolvable resolvable, Locale locale) throws NoSuchMessageException {
+        String[] codes = resolvable.getCodes();
+        if (codes == null || codes.length == 0) {
+            return delegate.getMessage(resolvable, locale);
+        }
+        if (locale == null) {
+            locale = Locale.getDefault();
+        }
+
+        Map<List<String>, String> byCodes = resolvedCodes.computeIfAbsent(locale, l -> new ConcurrentHashMap<>());
+        List<String> chain = Arrays.asList(codes);
+        String code = byCodes.get(chain);
+        if (code != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            code = findCode(codes, locale);
+            if (byCodes.size() < MAX_CACHE_SIZE) {
+                byCodes.putIfAbsent(chain, code);
+            }
+        }
+
+        if (code == NO_MATCH) {
+            return delegate.getMessage(resolvable, locale);
+        }
+        return delegate.getMessage(code, resolvable.getArguments(), locale);
+    }
+
+    private String findCode(String[] codes, Locale locale) {
+        for (String code : codes) {
+            if (exists(code, locale)) {
+                return code;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    //getMessage(code, null, null, locale) 는 useCodeAsDefaultMessage 이면 없는 코드도 코드 자체를 돌려주므로 쓰지 않는다.
+    private boolean exists(String code, Locale locale) {
+        if (delegate instanceof PrecompiledMessageSource) {
+            return ((PrecompiledMessageSource) delegate).hasMessage(code, locale);
+        }
+        //기본 메시지를 주면 useCodeAsDefaultMessage 보다 기본 메시지가 먼저 쓰인다.
+        DefaultMessageSourceResolvable resolvable = new DefaultMessageSourceResolvable(new String[]{code}, null, ABSENT);
+        return !ABSENT.equals(delegate.getMessage(resolvable, locale));
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public void clearCache() {
+        resolvedCodes.clear();
+    }
+}
@@ -0,0 +1,86 @@
+package hello.itemservice.message;
+
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.util.ResourceUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * spring.messages.basename 형식의 basename(messages, i18n.errors, file:config/errors)으로 메시지 파일을 찾는다.
+ * file: 처럼 위치를 지정하면 그 위치에서, 아니면 클래스패스에서 찾는다. (ResourceBundleMessageSource 와 같은 규칙)
+ */
+public abstract class MessageBundles {
+
+    /**
+     * 기본 Locale + basename_{locale}.properties 파일이 있는 Locale
+     */
+    public static Set<Locale> supportedLocales(String[] basenames) {
+        Set<Locale> locales = new LinkedHashSet<>();
+        locales.add(Locale.getDefault());
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
+        for (String basename : basenames) {
+            String path = path(basename);
+            //classpath*:messages, file:config/errors -> messages_, errors_
+            String prefix = path.substring(Math.max(path.lastIndexOf('/'), path.lastIndexOf(':')) + 1) + "_";
+            for (Resource resource : resources(resolver, path + "_*.properties")) {
+                String filename = StringUtils.stripFilenameExtension(resource.getFilename());
+                if (filename == null || !filename.startsWith(prefix)) {
+                    continue;
+                }
+                try {
+                    locales.add(StringUtils.parseLocale(filename.substring(prefix.length())));
+                } catch (IllegalArgumentException e) {
+                    //errors_old.properties 처럼 Locale 이 아닌 파일
+                }
+            }
+        }
+        return locales;
+    }
+
+    /**
+     * 기본 파일(basename.properties)에 있는 메시지 코드
+     */
+    public static Set<String> codes(String[] basenames) {
+        Set<String> codes = new LinkedHashSet<>();
+        ResourceLoader resourceLoader = new DefaultResourceLoader();
+        for (String basename : basenames) {
+            String location = ResourceUtils.isUrl(basename)
+                    ? basename + ".properties"
+                    : ResourceLoader.CLASSPATH_URL_PREFIX + basename.replace('.', '/') + ".properties";
+            Resource resource = resourceLoader.getResource(location);
+            if (!resource.exists()) {
+                continue;
+            }
+            Properties properties = new Properties();
+            try (InputStream in = resource.getInputStream()) {
+                properties.load(in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            codes.addAll(properties.stringPropertyNames());
+        }
+        return codes;
+    }
+
+    private static String path(String basename) {
+        return ResourceUtils.isUrl(basename) ? basename : "classpath*:" + basename.replace('.', '/');
+    }
+
+    private static Resource[] resources(PathMatchingResourcePatternResolver resolver, String pattern) {
+        try {
+            return resolver.getResources(pattern);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package hello.itemservice.message;
+
+import org.springframework.boot.autoconfigure.context.MessageSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.MessageSource;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.MessageCodesResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 메시지 코드 생성과 메시지 조회에 캐시를 적용한다.
+ * 메시지는 PrecompiledMessageSource 가 basename 들을 Locale 별로 합쳐서 미리 만들어둔다.
+ * spring.messages.* 설정은 스프링 부트 기본 MessageSource 와 똑같이 적용된다.
+ */
+@Configuration
+public class MessageConfig implements WebMvcConfigurer {
+
+    private final CachingMessageCodesResolver messageCodesResolver = new CachingMessageCodesResolver();
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.messages")
+    public MessageSourceProperties messageSourceProperties() {
+        return new MessageSourceProperties();
+    }
+
+    @Bean
+    public CachingMessageSource messageSource(MessageSourceProperties properties, ApplicationEventPublisher eventPublisher) {
+        //cache-duration 을 지정하면 그 간격마다 파일이 바뀌었는지 확인하고 다시 읽는다. (지정하지 않으면 시작할 때 한 번만 읽는다)
+        PrecompiledMessageSource messageSource = new PrecompiledMessageSource(
+                StringUtils.commaDelimitedListToStringArray(StringUtils.trimAllWhitespace(properties.getBasename())),
+                properties.getEncoding() != null ? properties.getEncoding() : StandardCharsets.UTF_8,
+                properties.isFallbackToSystemLocale(),
+                properties.getCacheDuration() != null ? properties.getCacheDuration().toMillis() : -1);
+        messageSource.setAlwaysUseMessageFormat(properties.isAlwaysUseMessageFormat());
+        messageSource.setUseCodeAsDefaultMessage(properties.isUseCodeAsDefaultMessage());
+
+        CachingMessageSource cachingMessageSource = new CachingMessageSource(messageSource);
+        //다시 읽으면 코드가 생기거나 없어질 수 있으므로 기억한 코드를 지우고, 메시지로 만든 다른 캐시에도 알린다.
+        messageSource.setOnReload(() -> {
+            cachingMessageSource.clearCache();
+            eventPublisher.publishEvent(new MessagesReloadedEvent(messageSource));
+        });
+        return cachingMessageSource;
+    }
+
+    //BindingResult 가 rejectValue(), reject() 에서 사용하는 MessageCodesResolver
+    @Override
+    public MessageCodesResolver getMessageCodesResolver() {
+        return messageCodesResolver;
+    }
+}
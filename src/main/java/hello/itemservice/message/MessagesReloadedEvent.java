@@ -0,0 +1,14 @@
+package hello.itemservice.message;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * PrecompiledMessageSource 가 바뀐 메시지 파일을 다시 읽은 뒤에 발행한다.
+ * 메시지로 만들어서 따로 캐시해둔 것(예: 상품 목록 머리글)은 이때 지운다.
+ */
+public class MessagesReloadedEvent extends ApplicationEvent {
+
+    public MessagesReloadedEvent(Object source) {
+        super(source);
+    }
+}
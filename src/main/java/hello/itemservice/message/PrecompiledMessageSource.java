@@ -0,0 +1,409 @@
+package hello.itemservice.message;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.support.AbstractMessageSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.ResourceUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.text.DateFormat;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 모든 basename(messages, errors)을 Locale 별로 하나의 불변 Map 으로 합쳐두는 MessageSource
+ * 코드마다 basename 수만큼 번들을 찾지 않고, {0} ~ {1} 같은 패턴도 읽을 때 미리 나눠두어서
+ * 조회할 때마다 MessageFormat 을 만들거나 공유된 MessageFormat 에 synchronized 하지 않는다.
+ *
+ * 찾는 순서는 ResourceBundleMessageSource 와 같다. (basename 순서 -> 구체적인 Locale -> 시스템 Locale -> 기본 파일)
+ * 단순한 {n} 만 있는 패턴은 MessageFormat 과 같은 규칙(작은따옴표, 숫자, 날짜)으로 직접 만들고,
+ * {0,number,#} 처럼 형식이 있는 패턴은 미리 만든 MessageFormat 을 복사해서 사용한다.
+ *
+ * cacheMillis 가 0 이상이면 그 간격마다 파일이 바뀌었는지(새로 생긴 파일 포함) 확인하고 다시 읽는다. (운영 중 메시지 수정)
+ * 다시 읽는 동안에도 다른 요청은 이전 메시지로 응답한다. jar 안의 파일은 바뀌지 않으므로
+ * 운영 중에 수정하려면 basename 을 file:config/errors 처럼 지정한다.
+ */
+@Slf4j
+public class PrecompiledMessageSource extends AbstractMessageSource {
+
+    //Accept-Language 로 임의의 Locale 이 들어와도 캐시가 계속 늘어나지 않게 한다.
+    static final int MAX_LOCALES = 100;
+
+    private static final ResourceBundle.Control CONTROL =
+            ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+
+    private final String[] basenames;
+    private final Charset encoding;
+    private final boolean fallbackToSystemLocale;
+    private final long cacheMillis;
+    private final ResourceLoader resourceLoader = new DefaultResourceLoader();
+
+    private volatile Generation generation;
+    private volatile long lastChecked = System.currentTimeMillis();
+    private final AtomicBoolean checking = new AtomicBoolean();
+    private volatile Runnable onReload = () -> {
+    };
+
+    /**
+     * @param cacheMillis 0 이상이면 그 간격마다 파일이 바뀌었는지 확인한다. 음수면 다시 읽지 않는다.
+     */
+    public PrecompiledMessageSource(String[] basenames, Charset encoding, boolean fallbackToSystemLocale, long cacheMillis) {
+        this.basenames = basenames.clone();
+        this.encoding = encoding;
+        this.fallbackToSystemLocale = fallbackToSystemLocale;
+        this.cacheMillis = cacheMillis;
+        this.generation = load();
+    }
+
+    //다시 읽은 뒤에 호출된다. (예: CachingMessageSource 가 기억한 코드 지우기)
+    public void setOnReload(Runnable onReload) {
+        this.onReload = onReload;
+    }
+
+    //합쳐둔 Locale (시작할 때: 기본 Locale + basename_{locale}.properties, 이후 요청된 Locale)
+    public Set<Locale> getLocales() {
+        return Collections.unmodifiableSet(generation.byLocale.keySet());
+    }
+
+    /**
+     * 코드에 해당하는 메시지가 있는지 (공통 메시지, 부모 MessageSource 포함)
+     * getMessage 와 달리 useCodeAsDefaultMessage 설정이어도 코드를 메시지로 돌려주지 않는다.
+     */
+    public boolean hasMessage(String code, Locale locale) {
+        return getMessageInternal(code, null, locale) != null;
+    }
+
+    @Override
+    protected String getMessageInternal(String code, Object[] args, Locale locale) {
+        if (code == null) {
+            return null;
+        }
+        if (locale == null) {
+            locale = Locale.getDefault();
+        }
+        LocaleMessages messages = messages(locale);
+        CompiledMessage message = messages.get(code);
+        if (message == null) {
+            return super.getMessageInternal(code, args, locale); //공통 메시지, 부모 MessageSource
+        }
+        if (!isAlwaysUseMessageFormat() && ObjectUtils.isEmpty(args)) {
+            return message.pattern;
+        }
+        return message.format(resolveArguments(args, locale), messages);
+    }
+
+    @Override
+    protected String resolveCodeWithoutArguments(String code, Locale locale) {
+        CompiledMessage message = messages(locale).get(code);
+        return message != null ? message.pattern : null;
+    }
+
+    @Override
+    protected MessageFormat resolveCode(String code, Locale locale) {
+        CompiledMessage message = messages(locale).get(code);
+        return message != null ? createMessageFormat(message.pattern, locale) : null;
+    }
+
+    private LocaleMessages messages(Locale locale) {
+        Generation current = current();
+        LocaleMessages messages = current.byLocale.get(locale);
+        if (messages != null) {
+            return messages;
+        }
+        if (current.byLocale.size() >= MAX_LOCALES) {
+            return fallback(current, locale);
+        }
+        return current.byLocale.computeIfAbsent(locale, l -> build(current, l));
+    }
+
+    /**
+     * 캐시가 가득 찬 뒤에 처음 보는 Locale 은 새로 만들지 않고 이미 만든 것 중에서 고른다.
+     * 파일이 있는 Locale 은 시작할 때 모두 만들어 두므로, 후보 Locale(en_XX -> en) 중 만든 것이 있으면 같은 결과다.
+     * 없으면 ResourceBundle 과 같이 시스템 Locale, 또는 기본 파일만 합친 메시지를 사용한다.
+     */
+    private LocaleMessages fallback(Generation current, Locale locale) {
+        for (Locale candidate : CONTROL.getCandidateLocales("", locale)) {
+            LocaleMessages messages = current.byLocale.get(candidate);
+            if (messages != null) {
+                return messages;
+            }
+        }
+        if (fallbackToSystemLocale) {
+            LocaleMessages messages = current.byLocale.get(Locale.getDefault());
+            if (messages != null) {
+                return messages;
+            }
+        }
+        return current.root;
+    }
+
+    //다시 읽을 때가 되었으면 한 스레드만 파일을 확인한다. 나머지는 기다리지 않고 지금 메시지를 사용한다.
+    private Generation current() {
+        Generation current = generation;
+        if (cacheMillis < 0) {
+            return current;
+        }
+        long now = System.currentTimeMillis();
+        if (now - lastChecked < cacheMillis || !checking.compareAndSet(false, true)) {
+            return current;
+        }
+        try {
+            lastChecked = now;
+            if (current.isModified()) {
+                current = load();
+                generation = current;
+                log.info("메시지 다시 읽기 locales={}", current.byLocale.keySet());
+                onReload.run();
+            }
+        } catch (RuntimeException e) {
+            //잘못 수정된 파일은 반영하지 않고 이전 메시지를 계속 사용한다.
+            log.warn("메시지 다시 읽기 실패, 이전 메시지를 사용합니다.", e);
+        } finally {
+            checking.set(false);
+        }
+        return current;
+    }
+
+    private Generation load() {
+        Generation loaded = new Generation();
+        for (Locale locale : MessageBundles.supportedLocales(basenames)) {
+            loaded.byLocale.put(locale, build(loaded, locale));
+        }
+        loaded.root = build(loaded, Locale.ROOT);
+        return loaded;
+    }
+
+    //basename 순서대로, 각 basename 안에서는 구체적인 파일부터 합친다. 먼저 넣은 값이 우선이다.
+    private LocaleMessages build(Generation generation, Locale locale) {
+        Map<String, CompiledMessage> merged = new HashMap<>();
+        for (String basename : basenames) {
+            for (Map<String, CompiledMessage> file : chain(generation, basename, locale)) {
+                file.forEach(merged::putIfAbsent);
+            }
+        }
+        return new LocaleMessages(locale, merged);
+    }
+
+    //ResourceBundle 과 같은 규칙: 해당 Locale 파일이 하나도 없으면 시스템 Locale 파일을 사용한다.
+    private List<Map<String, CompiledMessage>> chain(Generation generation, String basename, Locale locale) {
+        List<Map<String, CompiledMessage>> chain = specific(generation, basename, locale);
+        if (chain.isEmpty() && fallbackToSystemLocale && !locale.equals(Locale.getDefault())) {
+            chain = specific(generation, basename, Locale.getDefault());
+        }
+        generation.file(basename, Locale.ROOT).ifPresent(chain::add);
+        return chain;
+    }
+
+    private List<Map<String, CompiledMessage>> specific(Generation generation, String basename, Locale locale) {
+        List<Map<String, CompiledMessage>> files = new ArrayList<>();
+        for (Locale candidate : CONTROL.getCandidateLocales(basename, locale)) {
+            if (!candidate.equals(Locale.ROOT)) {
+                generation.file(basename, candidate).ifPresent(files::add);
+            }
+        }
+        return files;
+    }
+
+    //file:config/errors 처럼 위치를 지정하면 그 파일을, 아니면 클래스패스에서 읽는다.
+    private static String location(String basename, Locale locale) {
+        String bundleName = CONTROL.toBundleName(basename, locale);
+        if (ResourceUtils.isUrl(basename)) {
+            return bundleName + ".properties";
+        }
+        return ResourceLoader.CLASSPATH_URL_PREFIX + CONTROL.toResourceName(bundleName, "properties");
+    }
+
+    private long lastModified(Resource resource) {
+        try {
+            return resource.exists() ? resource.lastModified() : -1;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 한 번 읽은 메시지 전체. 다시 읽으면 새로 만들어서 교체한다.
+     * 파일은 한 번만 읽어서 여러 Locale 이 같은 CompiledMessage 를 공유한다.
+     */
+    private final class Generation {
+        private final Map<Locale, LocaleMessages> byLocale = new ConcurrentHashMap<>();
+        private final Map<String, Optional<Map<String, CompiledMessage>>> files = new ConcurrentHashMap<>();
+        //읽으려고 했던 파일 -> 읽을 때의 수정 시각 (없던 파일은 -1)
+        private final Map<String, Long> lastModified = new ConcurrentHashMap<>();
+        //Locale 이 너무 많을 때 사용하는 메시지 (load() 에서 만든다)
+        private LocaleMessages root;
+
+        Optional<Map<String, CompiledMessage>> file(String basename, Locale locale) {
+            return files.computeIfAbsent(location(basename, locale), this::read);
+        }
+
+        private Optional<Map<String, CompiledMessage>> read(String location) {
+            Resource resource = resourceLoader.getResource(location);
+            lastModified.put(location, PrecompiledMessageSource.this.lastModified(resource));
+            if (!resource.exists()) {
+                return Optional.empty();
+            }
+            Properties properties = new Properties();
+            try (InputStream in = resource.getInputStream(); Reader reader = new InputStreamReader(in, encoding)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                throw new UncheckedIOException("메시지 파일을 읽을 수 없습니다. " + location, e);
+            }
+            Map<String, CompiledMessage> messages = new HashMap<>();
+            for (String code : properties.stringPropertyNames()) {
+                messages.put(code, CompiledMessage.compile(properties.getProperty(code)));
+            }
+            return Optional.of(Map.copyOf(messages));
+        }
+
+        boolean isModified() {
+            for (Map.Entry<String, Long> entry : lastModified.entrySet()) {
+                if (PrecompiledMessageSource.this.lastModified(resourceLoader.getResource(entry.getKey())) != entry.getValue()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class LocaleMessages {
+        private final Locale locale;
+        private final Map<String, CompiledMessage> messages;
+        //NumberFormat 은 스레드에 안전하지 않으므로 스레드마다 하나씩 사용한다.
+        private final ThreadLocal<NumberFormat> numberFormat;
+
+        LocaleMessages(Locale locale, Map<String, CompiledMessage> messages) {
+            this.locale = locale;
+            this.messages = Map.copyOf(messages);
+            this.numberFormat = ThreadLocal.withInitial(() -> NumberFormat.getInstance(locale));
+        }
+
+        CompiledMessage get(String code) {
+            return messages.get(code);
+        }
+    }
+
+    /**
+     * 미리 나눠둔 메시지 패턴. parts 는 문자열 조각과 인자 번호(Integer)가 순서대로 들어있다.
+     * 형식이 있는 인자({0,number,#} 등)가 있으면 parts 가 null 이고 Locale 별 MessageFormat 을 복사해서 사용한다.
+     */
+    static final class CompiledMessage {
+        private static final int MAX_ARGUMENT_DIGITS = 9;
+
+        private final String pattern;
+        private final Object[] parts;
+        private final Map<Locale, MessageFormat> formats;
+
+        private CompiledMessage(String pattern, Object[] parts) {
+            this.pattern = pattern;
+            this.parts = parts;
+            this.formats = parts == null ? new ConcurrentHashMap<>() : null;
+        }
+
+        //MessageFormat 과 같은 작은따옴표 규칙: '' 는 ', '...' 사이는 그대로 출력한다.
+        static CompiledMessage compile(String pattern) {
+            List<Object> parts = new ArrayList<>();
+            StringBuilder literal = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == '\'') {
+                    if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                        literal.append('\'');
+                        i++;
+                    } else {
+                        quoted = !quoted;
+                    }
+                } else if (c == '{' && !quoted) {
+                    int end = pattern.indexOf('}', i);
+                    if (end < 0 || !isArgumentIndex(pattern, i + 1, end)) {
+                        //형식이 있거나 잘못된 패턴은 MessageFormat 이 처리한다. (잘못된 패턴이면 여기서 예외)
+                        new MessageFormat(pattern);
+                        return new CompiledMessage(pattern, null);
+                    }
+                    if (literal.length() > 0) {
+                        parts.add(literal.toString());
+                        literal.setLength(0);
+                    }
+                    parts.add(Integer.parseInt(pattern, i + 1, end, 10));
+                    i = end;
+                } else {
+                    literal.append(c);
+                }
+            }
+            if (literal.length() > 0) {
+                parts.add(literal.toString());
+            }
+            return new CompiledMessage(pattern, parts.toArray());
+        }
+
+        private static boolean isArgumentIndex(String pattern, int start, int end) {
+            if (start == end || end - start > MAX_ARGUMENT_DIGITS) {
+                return false;
+            }
+            for (int i = start; i < end; i++) {
+                if (pattern.charAt(i) < '0' || pattern.charAt(i) > '9') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String format(Object[] args, LocaleMessages context) {
+            if (parts == null) {
+                MessageFormat prototype = formats.computeIfAbsent(context.locale, locale -> new MessageFormat(pattern, locale));
+                return ((MessageFormat) prototype.clone()).format(args);
+            }
+            StringBuilder result = new StringBuilder(pattern.length() + 16);
+            for (Object part : parts) {
+                if (part instanceof String) {
+                    result.append((String) part);
+                    continue;
+                }
+                int index = (Integer) part;
+                if (args == null || index >= args.length) {
+                    result.append('{').append(index).append('}');
+                } else {
+                    appendArgument(result, args[index], context);
+                }
+            }
+            return result.toString();
+        }
+
+        //MessageFormat 에서 형식이 없는 {n} 을 출력하는 규칙
+        private static void appendArgument(StringBuilder result, Object arg, LocaleMessages context) {
+            if (arg == null) {
+                result.append("null");
+            } else if (arg instanceof Number) {
+                result.append(context.numberFormat.get().format(arg));
+            } else if (arg instanceof Date) {
+                result.append(DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, context.locale).format(arg));
+            } else if (arg instanceof String) {
+                result.append((String) arg);
+            } else {
+                result.append(arg);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package hello.itemservice.validation;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * price * quantity >= min 복합 룰 (totalPriceMin)
+ * @ScriptAssert 처럼 스크립트를 실행하지 않고, 캐시된 MethodHandle 로 값을 읽어서 계산한다.
+ * 곱셈이 long 범위를 넘으면 부호에 따라 최대/최솟값으로 처리한다.
+ *
+ * price, quantity 중 하나라도 null 이면 검증하지 않는다. (null 검증은 @NotNull 의 역할)
+ */
+@Documented
+@Inherited
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = MinTotalValidator.class)
+public @interface MinTotal {
+
+    String price();
+
+    String quantity();
+
+    long min();
+
+    String message() default "가격 * 수량의 합은 {min}원 이상이어야 합니다. 현재 값 = {total}";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
@@ -0,0 +1,170 @@
+package hello.itemservice.validation;
+
+import org.hibernate.validator.constraintvalidation.HibernateConstraintValidatorContext;
+import org.hibernate.validator.constraintvalidation.HibernateConstraintViolation;
+import org.springframework.beans.BeanUtils;
+import org.springframework.validation.Errors;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+import javax.validation.ConstraintViolation;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * @MinTotal 검증기
+ * 어느 경로로 검증해도 같은 totalPriceMin 코드, {0}=min, {1}=현재 값 인자로 global 오류를 남긴다.
+ * - Spring Validator: check()
+ * - Bean Validation: 위반을 reject(ConstraintViolation, Errors) 로 옮긴다. (ErrorBudgetValidatorAdapter)
+ * Bean Validation 에서는 initialize 로 받은 애노테이션으로, check() 는 클래스의 애노테이션으로 검증한다.
+ * 어느 쪽이든 클래스마다 getter MethodHandle 을 한 번만 찾아서 ClassValue 에 캐시한다.
+ */
+public class MinTotalValidator implements ConstraintValidator<MinTotal, Object> {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final ClassValue<Accessor> ACCESSORS = new ClassValue<>() {
+        @Override
+        protected Accessor computeValue(Class<?> type) {
+            MinTotal minTotal = type.getAnnotation(MinTotal.class);
+            return minTotal == null ? null : new Accessor(type, minTotal);
+        }
+    };
+
+    private MinTotal minTotal;
+    //검증 대상 클래스별 getter, 같은 애노테이션이라도 클래스마다 getter 가 다르다.
+    private ClassValue<Accessor> accessors;
+
+    @Override
+    public void initialize(MinTotal constraintAnnotation) {
+        //클래스에서 애노테이션을 다시 찾지 않고 넘어온 애노테이션을 쓴다.
+        //(상속한 클래스에 다른 @MinTotal 이 있거나, XML, 인터페이스로 선언한 경우에도 이 제약의 속성으로 검증한다)
+        this.minTotal = constraintAnnotation;
+        this.accessors = new ClassValue<>() {
+            @Override
+            protected Accessor computeValue(Class<?> type) {
+                return new Accessor(type, constraintAnnotation);
+            }
+        };
+    }
+
+    @Override
+    public boolean isValid(Object value, ConstraintValidatorContext context) {
+        if (value == null) {
+            return true;
+        }
+        Long total = accessors.get(value.getClass()).total(value);
+        if (total == null || total >= minTotal.min()) {
+            return true;
+        }
+        if (context instanceof HibernateConstraintValidatorContext) {
+            //현재 값은 메시지({total})와 reject() 에서 쓴다.
+            context.unwrap(HibernateConstraintValidatorContext.class)
+                    .addMessageParameter("total", total)
+                    .withDynamicPayload(total);
+        }
+        return false;
+    }
+
+    /**
+     * @MinTotal 위반이면 check() 와 같은 totalPriceMin {min, 현재 값} global 오류로 남기고 true 를 반환한다.
+     * SpringValidatorAdapter 는 애노테이션 이름(MinTotal)과 애노테이션 속성을 인자로 쓰므로 대신 이 메서드로 옮긴다.
+     */
+    public static boolean reject(ConstraintViolation<?> violation, Errors errors) {
+        if (!(violation.getConstraintDescriptor().getAnnotation() instanceof MinTotal)
+                || !(violation instanceof HibernateConstraintViolation)) {
+            return false;
+        }
+        MinTotal minTotal = (MinTotal) violation.getConstraintDescriptor().getAnnotation();
+        Long total = ((HibernateConstraintViolation<?>) violation).getDynamicPayload(Long.class);
+        if (total == null) {
+            return false;
+        }
+        errors.reject("totalPriceMin", new Object[]{minTotal.min(), total}, violation.getMessage());
+        return true;
+    }
+
+    /**
+     * Spring Validator 에서 사용한다. 클래스에 @MinTotal 이 있으면 검증하고
+     * 기존과 같은 totalPriceMin 코드, {min, 현재 값} 인자로 global 오류를 남긴다.
+     */
+    public static void check(Object target, Errors errors) {
+        Accessor accessor = ACCESSORS.get(target.getClass());
+        if (accessor == null) {
+            return;
+        }
+        reject(accessor.total(target), accessor.min, errors);
+    }
+
+    /**
+     * @MinTotal 이 없는 클래스(도메인 Item)용, 값을 직접 넘긴다.
+     */
+    public static void check(Number price, Number quantity, long min, Errors errors) {
+        if (price == null || quantity == null) {
+            return;
+        }
+        reject(multiply(price.longValue(), quantity.longValue()), min, errors);
+    }
+
+    private static void reject(Long total, long min, Errors errors) {
+        if (total != null && total < min) {
+            errors.reject("totalPriceMin", new Object[]{min, total}, null);
+        }
+    }
+
+    /**
+     * overflow 가 나면 부호에 맞게 Long.MAX_VALUE 또는 Long.MIN_VALUE 로 처리한다.
+     */
+    static long multiply(long price, long quantity) {
+        try {
+            return Math.multiplyExact(price, quantity);
+        } catch (ArithmeticException e) {
+            return (price < 0) == (quantity < 0) ? Long.MAX_VALUE : Long.MIN_VALUE;
+        }
+    }
+
+    private static final class Accessor {
+        private final MethodHandle price;
+        private final MethodHandle quantity;
+        private final long min;
+
+        Accessor(Class<?> type, MinTotal minTotal) {
+            this.price = getter(type, minTotal.price());
+            this.quantity = getter(type, minTotal.quantity());
+            this.min = minTotal.min();
+        }
+
+        Long total(Object target) {
+            Number priceValue = (Number) invoke(price, target);
+            Number quantityValue = (Number) invoke(quantity, target);
+            if (priceValue == null || quantityValue == null) {
+                return null;
+            }
+            return multiply(priceValue.longValue(), quantityValue.longValue());
+        }
+
+        private static MethodHandle getter(Class<?> type, String property) {
+            PropertyDescriptor descriptor = BeanUtils.getPropertyDescriptor(type, property);
+            if (descriptor == null || descriptor.getReadMethod() == null) {
+                throw new IllegalArgumentException(type.getName() + " 에 " + property + " getter 가 없습니다.");
+            }
+            try {
+                return MethodHandles.publicLookup().unreflect(descriptor.getReadMethod()).asType(GETTER_TYPE);
+            } catch (IllegalAccessException e) {
+                throw new IllegalArgumentException(type.getName() + "." + property + " getter 에 접근할 수 없습니다.", e);
+            }
+        }
+
+        private static Object invoke(MethodHandle getter, Object target) {
+            try {
+                return getter.invokeExact(target);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
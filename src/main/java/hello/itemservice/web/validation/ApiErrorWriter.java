@@ -0,0 +1,50 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+
+/**
+ * JSON API 검증 오류 응답
+ * [{"field":"price","code":"Range","message":"가격은 1000 ~ 1000000 까지 허용합니다."}, {"code":"totalPriceMin","message":"..."}]
+ * global 오류는 field 를 생략한다. 메시지는 요청 Locale 로 찾은 값이다.
+ *
+ * FieldError 를 그대로 직렬화하면 codes, arguments, bindingFailure 등이 모두 포함되므로
+ * 필요한 값만 JsonGenerator 로 응답 스트림에 바로 쓴다. (중간 DTO 나 트리를 만들지 않는다)
+ */
+@Component
+public class ApiErrorWriter {
+
+    private final JsonFactory jsonFactory;
+    private final MessageSource messageSource;
+
+    public ApiErrorWriter(ObjectMapper objectMapper, MessageSource messageSource) {
+        this.jsonFactory = objectMapper.getFactory();
+        this.messageSource = messageSource;
+    }
+
+    public void write(Errors errors, Locale locale, OutputStream out) throws IOException {
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartArray();
+            for (ObjectError error : errors.getAllErrors()) {
+                generator.writeStartObject();
+                if (error instanceof FieldError) {
+                    generator.writeStringField("field", ((FieldError) error).getField());
+                }
+                generator.writeStringField("code", error.getCode());
+                generator.writeStringField("message", messageSource.getMessage(error, locale));
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package hello.itemservice.web.validation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.servlet.DispatcherType;
+
+/**
+ * validation.api.execution=blocking     : @RequestBody 가 워커 스레드에서 본문을 읽는다. (기본값)
+ * validation.api.execution=non-blocking : 본문을 논블로킹으로 다 받은 뒤에 컨트롤러를 호출한다.
+ * /batch 는 스트림으로 처리하므로 대상에서 제외한다.
+ */
+@Configuration
+@ConditionalOnProperty(name = "validation.api.execution", havingValue = "non-blocking")
+public class ApiExecutionConfig {
+
+    @Bean
+    public FilterRegistrationBean<NonBlockingBodyFilter> nonBlockingBodyFilter(
+            @Value("${validation.api.max-body-size:1048576}") int maxBodySize) {
+        FilterRegistrationBean<NonBlockingBodyFilter> registration = new FilterRegistrationBean<>(new NonBlockingBodyFilter(maxBodySize));
+        registration.addUrlPatterns("/validation/api/items/add");
+        registration.setDispatcherTypes(DispatcherType.REQUEST);
+        registration.setAsyncSupported(true);
+        return registration;
+    }
+}
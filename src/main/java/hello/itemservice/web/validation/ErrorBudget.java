@@ -0,0 +1,23 @@
+package hello.itemservice.web.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 검증 오류를 최대 몇 개까지 만들지 정한다. 1 이면 첫 오류에서 검증을 멈춘다. (fail-fast)
+ * 컨트롤러 메서드(엔드포인트 단위), 컨트롤러 클래스, 검증 대상 클래스(요청 클래스 단위)에 붙일 수 있다.
+ * 메서드 > 컨트롤러 클래스 > 검증 대상 클래스 순서로 적용된다.
+ *
+ * 호출자는 X-Validation-Error-Budget 헤더로 더 작은 값을 요청할 수 있다.
+ * validation.error-budget.internal-token 과 같은 X-Validation-Internal-Token 을 보낸 내부 호출자는 늘릴 수도 있다.
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ErrorBudget {
+
+    int value();
+}
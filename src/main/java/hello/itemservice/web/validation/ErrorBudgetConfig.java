@@ -0,0 +1,26 @@
+package hello.itemservice.web.validation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * 엔드포인트의 @ErrorBudget 과 X-Validation-Error-Budget 헤더를 검증 전에 요청 속성으로 옮긴다.
+ * validation.error-budget.internal-token 을 설정하면 같은 토큰을 보낸 내부 호출자는 헤더로 한도를 늘릴 수 있다.
+ * 글로벌 Bean Validation 검증기(ErrorBudgetValidatorAdapter)는 ValidationMetricsConfig 에서 등록한다.
+ */
+@Configuration
+public class ErrorBudgetConfig implements WebMvcConfigurer {
+
+    private final String internalToken;
+
+    public ErrorBudgetConfig(@Value("${validation.error-budget.internal-token:}") String internalToken) {
+        this.internalToken = internalToken;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ErrorBudgets.Interceptor(internalToken)).addPathPatterns("/validation/**");
+    }
+}
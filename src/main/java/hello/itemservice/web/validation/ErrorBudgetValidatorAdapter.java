@@ -0,0 +1,145 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.validation.MinTotalValidator;
+import org.hibernate.validator.HibernateValidatorFactory;
+import org.springframework.util.ClassUtils;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.PropertyDescriptor;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * @ErrorBudget 을 적용하는 Bean Validation 검증기
+ * 한도가 1 이면 Hibernate Validator 의 failFast 검증기로 첫 위반에서 멈춘다.
+ * 2 이상이면 속성 이름 순서로 한 속성씩(validateProperty) 검증하다가 한도를 채우면 멈춘다.
+ * 클래스 단위 제약(@MinTotal)은 속성 검증으로 한도를 채우지 못했을 때만 검증한다.
+ * (클래스 단위 제약만 따로 검증하는 API 가 없어서 이때는 전체를 한 번 더 검증하고 클래스 단위 위반만 남긴다)
+ * 중첩 검증(@Valid)이 있는 클래스는 전체를 검증한 뒤 한도만큼만 남긴다.
+ * 바인딩 오류(typeMismatch)로 이미 한도를 채웠으면 검증하지 않는다.
+ * @MinTotal 위반은 Spring Validator 와 같은 totalPriceMin {min, 현재 값} 오류로 남긴다.
+ */
+public class ErrorBudgetValidatorAdapter extends SpringValidatorAdapter {
+
+    private final Validator validator;
+    private final Validator failFastValidator;
+
+    private final ClassValue<Constraints> constraints = new ClassValue<>() {
+        @Override
+        protected Constraints computeValue(Class<?> type) {
+            return new Constraints(validator.getConstraintsForClass(type));
+        }
+    };
+
+    public ErrorBudgetValidatorAdapter(ValidatorFactory validatorFactory) {
+        this(validatorFactory.getValidator(),
+                validatorFactory.unwrap(HibernateValidatorFactory.class).usingContext().failFast(true).getValidator());
+    }
+
+    ErrorBudgetValidatorAdapter(Validator validator, Validator failFastValidator) {
+        super(validator);
+        this.validator = validator;
+        this.failFastValidator = failFastValidator;
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        int budget = ErrorBudgets.resolve(target);
+        int remaining = budget - errors.getErrorCount();
+        if (remaining <= 0) {
+            return;
+        }
+        Class<?>[] groups = asGroups(validationHints);
+        Set<ConstraintViolation<Object>> violations;
+        if (budget == ErrorBudgets.UNLIMITED) {
+            violations = validator.validate(target, groups);
+        } else if (remaining == 1) {
+            violations = failFastValidator.validate(target, groups);
+        } else {
+            violations = validateUpTo(target, remaining, groups);
+        }
+        processConstraintViolations(violations, errors);
+    }
+
+    private Set<ConstraintViolation<Object>> validateUpTo(Object target, int remaining, Class<?>[] groups) {
+        Constraints type = constraints.get(target.getClass());
+        if (type.cascaded) {
+            return limit(validator.validate(target, groups), remaining);
+        }
+        Set<ConstraintViolation<Object>> violations = new LinkedHashSet<>();
+        for (String property : type.properties) {
+            violations.addAll(validator.validateProperty(target, property, groups));
+            if (violations.size() >= remaining) {
+                return limit(violations, remaining);
+            }
+        }
+        if (type.classLevel) {
+            for (ConstraintViolation<Object> violation : validator.validate(target, groups)) {
+                if (violation.getPropertyPath().toString().isEmpty()) {
+                    violations.add(violation);
+                }
+            }
+        }
+        return limit(violations, remaining);
+    }
+
+    private static Set<ConstraintViolation<Object>> limit(Set<ConstraintViolation<Object>> violations, int remaining) {
+        if (violations.size() <= remaining) {
+            return violations;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .limit(remaining)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    @Override
+    protected void processConstraintViolations(Set<ConstraintViolation<Object>> violations, Errors errors) {
+        Set<ConstraintViolation<Object>> others = new LinkedHashSet<>(violations.size() * 2);
+        for (ConstraintViolation<Object> violation : violations) {
+            if (!MinTotalValidator.reject(violation, errors)) {
+                others.add(violation);
+            }
+        }
+        super.processConstraintViolations(others, errors);
+    }
+
+    private static Class<?>[] asGroups(Object... validationHints) {
+        Set<Class<?>> groups = new LinkedHashSet<>(4);
+        for (Object hint : validationHints) {
+            if (hint instanceof Class) {
+                groups.add((Class<?>) hint);
+            }
+        }
+        return ClassUtils.toClassArray(groups);
+    }
+
+    //클래스별 제약 정보, 속성은 이름 순서로 검증한다.
+    private static final class Constraints {
+        private final List<String> properties;
+        private final boolean classLevel;
+        private final boolean cascaded;
+
+        Constraints(BeanDescriptor descriptor) {
+            this.properties = descriptor.getConstrainedProperties().stream()
+                    .map(PropertyDescriptor::getPropertyName)
+                    .sorted()
+                    .collect(Collectors.toList());
+            this.classLevel = descriptor.hasConstraints();
+            this.cascaded = descriptor.getConstrainedProperties().stream().anyMatch(PropertyDescriptor::isCascaded);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package hello.itemservice.web.validation;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.validation.Errors;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * 현재 요청에 적용할 오류 개수 한도(@ErrorBudget)를 찾는다.
+ * 엔드포인트 한도와 헤더는 Interceptor 가 요청 속성에 넣어두고, 검증기는 resolve() 로 읽는다.
+ * 요청 밖(테스트, 배치)에서는 검증 대상 클래스의 @ErrorBudget 만 적용된다.
+ */
+public abstract class ErrorBudgets {
+
+    public static final String HEADER = "X-Validation-Error-Budget";
+    //validation.error-budget.internal-token 과 같은 값을 보낸 내부 호출자는 헤더로 한도를 늘릴 수도 있다.
+    public static final String TOKEN_HEADER = "X-Validation-Internal-Token";
+    public static final int UNLIMITED = Integer.MAX_VALUE;
+
+    private static final String ATTRIBUTE = ErrorBudgets.class.getName() + ".budget";
+
+    private static final ClassValue<Integer> TYPE_BUDGETS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return budgetOf(AnnotatedElementUtils.findMergedAnnotation(type, ErrorBudget.class));
+        }
+    };
+
+    public static int resolve(Object target) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Integer requestBudget = attributes == null ? null
+                : (Integer) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (requestBudget != null) {
+            return requestBudget;
+        }
+        return target == null ? UNLIMITED : TYPE_BUDGETS.get(target.getClass());
+    }
+
+    //이미 한도만큼 오류가 있으면 나머지 검증은 건너뛴다.
+    public static boolean exhausted(Errors errors, int budget) {
+        return errors.getErrorCount() >= budget;
+    }
+
+    private static int budgetOf(ErrorBudget errorBudget) {
+        return errorBudget == null ? UNLIMITED : Math.max(errorBudget.value(), 1);
+    }
+
+    private static int headerBudget(HttpServletRequest request) {
+        String header = request.getHeader(HEADER);
+        if (header == null) {
+            return UNLIMITED;
+        }
+        try {
+            int budget = Integer.parseInt(header.trim());
+            return budget < 1 ? UNLIMITED : budget;
+        } catch (NumberFormatException e) {
+            return UNLIMITED;
+        }
+    }
+
+    /**
+     * 핸들러 메서드, 컨트롤러 클래스의 @ErrorBudget 과 헤더 중 작은 값을 요청 속성에 넣는다.
+     * 둘 다 없으면 아무것도 넣지 않아서 검증 대상 클래스의 @ErrorBudget 이 적용된다.
+     * 내부 호출자(TOKEN_HEADER 가 설정된 토큰과 같음)가 보낸 헤더는 @ErrorBudget 보다 우선한다. (0 이면 한도 없음)
+     */
+    static class Interceptor implements HandlerInterceptor {
+
+        private final byte[] internalToken;
+
+        //internalToken 이 비어 있으면 헤더로 한도를 줄일 수만 있다.
+        Interceptor(String internalToken) {
+            this.internalToken = internalToken == null || internalToken.isEmpty() ? null
+                    : internalToken.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            int budget = headerBudget(request);
+            if (request.getHeader(HEADER) != null && trusted(request)) {
+                //검증 대상 클래스의 @ErrorBudget 보다도 우선하도록 한도 없음도 그대로 넣는다.
+                request.setAttribute(ATTRIBUTE, budget);
+                return true;
+            }
+            if (handler instanceof HandlerMethod) {
+                HandlerMethod handlerMethod = (HandlerMethod) handler;
+                ErrorBudget errorBudget = handlerMethod.getMethodAnnotation(ErrorBudget.class);
+                if (errorBudget == null) {
+                    errorBudget = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), ErrorBudget.class);
+                }
+                budget = Math.min(budget, budgetOf(errorBudget));
+            }
+            if (budget != UNLIMITED) {
+                request.setAttribute(ATTRIBUTE, budget);
+            }
+            return true;
+        }
+
+        //토큰 비교 시간으로 값을 알아낼 수 없도록 MessageDigest.isEqual 로 비교한다.
+        private boolean trusted(HttpServletRequest request) {
+            String token = request.getHeader(TOKEN_HEADER);
+            return internalToken != null && token != null
+                    && MessageDigest.isEqual(internalToken, token.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
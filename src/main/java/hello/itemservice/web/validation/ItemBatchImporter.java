@@ -0,0 +1,209 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.validation.MinTotalValidator;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemSaveFormValidator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON 배열 또는 NDJSON 으로 들어온 상품을 한 건씩 읽으면서 검증하고,
+ * 검증을 통과한 상품은 CHUNK_SIZE 단위로 모아서 저장한다.
+ * 전체 요청을 메모리에 올리지 않으므로 요청 크기와 관계없이 사용하는 메모리가 일정하다.
+ *
+ * 응답은 입력 순서대로 [{"index":0,"id":1}, {"index":1,"errors":[{"field":"price","code":"Range"}]}, ...]
+ *
+ * 행 단위로 저장한다. 응답에 id 가 있는 행은 저장된 것이고, errors 가 있는 행은 저장되지 않은 것이다.
+ * 중간에 JSON 문법이 깨지면 그 앞까지 읽은 행은 그대로 저장하고, 깨진 위치의 index 로
+ * {"index":n,"errors":[{"code":"invalidJson"}]} 를 마지막 행으로 남긴다. 그 뒤는 읽지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemBatchImporter {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private final ObjectMapper objectMapper;
+    private final ItemRepository itemRepository;
+    private final ItemSaveFormValidator itemSaveFormValidator;
+
+    public void importItems(InputStream in, OutputStream out) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+
+            List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+            generator.writeStartArray();
+
+            int index = 0;
+            try {
+                //JSON 배열이면 배열 안의 객체를, 아니면(NDJSON) 최상위 객체를 차례대로 읽는다.
+                JsonToken first = parser.nextToken();
+                boolean array = first == JsonToken.START_ARRAY;
+                JsonToken token = array ? parser.nextToken() : first;
+
+                while (token != null && token != JsonToken.END_ARRAY) {
+                    JsonNode node = parser.readValueAsTree();
+                    chunk.add(validate(index++, node));
+                    if (chunk.size() == CHUNK_SIZE) {
+                        flush(chunk, generator);
+                    }
+                    token = parser.nextToken();
+                }
+            } catch (JsonParseException e) {
+                //문법이 깨진 뒤로는 행의 경계를 알 수 없으므로 더 읽지 않고, 응답은 올바른 JSON 으로 끝낸다.
+                chunk.add(Row.failed(index, List.of(globalError("invalidJson"))));
+            }
+            flush(chunk, generator);
+
+            generator.writeEndArray();
+        }
+    }
+
+    private Row validate(int index, JsonNode node) {
+        if (!node.isObject()) {
+            return Row.failed(index, List.of(globalError("typeMismatch")));
+        }
+
+        //@RequestBody 와 달리 한 건의 타입 오류로 전체 요청을 실패시키지 않는다.
+        //@ModelAttribute 처럼 타입이 맞지 않는 필드만 빼고 나머지 필드는 바인딩한다.
+        ObjectNode fields = (ObjectNode) node;
+        Map<String, Object> mismatches = new LinkedHashMap<>();
+        ItemSaveForm form = null;
+        while (form == null) {
+            try {
+                form = objectMapper.treeToValue(fields, ItemSaveForm.class);
+            } catch (UnrecognizedPropertyException e) {
+                //폼에 없는 필드는 무시한다. (스프링 부트의 ObjectMapper 기본 설정과 같다)
+                if (fields.remove(e.getPropertyName()) == null) {
+                    return Row.failed(index, List.of(globalError("typeMismatch")));
+                }
+            } catch (MismatchedInputException e) {
+                String field = field(e);
+                JsonNode value = field == null ? null : fields.remove(field);
+                if (value == null) {
+                    return Row.failed(index, List.of(globalError("typeMismatch")));
+                }
+                mismatches.put(field, value.isValueNode() ? value.asText() : value.toString());
+            } catch (JsonProcessingException e) {
+                return Row.failed(index, List.of(globalError("typeMismatch")));
+            }
+        }
+
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+        mismatches.forEach((field, value) -> bindingResult.addError(typeMismatch(bindingResult, field, value)));
+
+        BindingResult checked = new BeanPropertyBindingResult(form, "item");
+        itemSaveFormValidator.validate(form, checked);
+
+        //특정 필드가 아닌 복합 룰 검증 (ItemSaveForm 의 @MinTotal)
+        MinTotalValidator.check(form, checked);
+
+        //바인딩에 실패한 필드는 다시 검증하지 않는다. (typeMismatch 와 NotNull 이 함께 나오지 않도록)
+        for (ObjectError error : checked.getAllErrors()) {
+            if (!(error instanceof FieldError) || !mismatches.containsKey(((FieldError) error).getField())) {
+                bindingResult.addError(error);
+            }
+        }
+
+        if (bindingResult.hasErrors()) {
+            return Row.failed(index, bindingResult.getAllErrors());
+        }
+        return Row.valid(index, new Item(form.getItemName(), form.getPrice(), form.getQuantity()));
+    }
+
+    //최상위 필드 이름, 중첩된 경로거나 배열 안이면 null
+    private static String field(JsonMappingException e) {
+        List<JsonMappingException.Reference> path = e.getPath();
+        return path.size() == 1 ? path.get(0).getFieldName() : null;
+    }
+
+    //DefaultBindingErrorProcessor 와 같은 코드와 arguments ({0}=필드명)
+    private static FieldError typeMismatch(BindingResult bindingResult, String field, Object value) {
+        String[] codes = bindingResult.resolveMessageCodes("typeMismatch", field);
+        Object[] arguments = {new DefaultMessageSourceResolvable(
+                new String[]{bindingResult.getObjectName() + "." + field, field}, field)};
+        return new FieldError(bindingResult.getObjectName(), field, value, true, codes, arguments, null);
+    }
+
+    private static ObjectError globalError(String code) {
+        return new ObjectError("item", new String[]{code}, null, null);
+    }
+
+    private void flush(List<Row> chunk, JsonGenerator generator) throws IOException {
+        List<Item> items = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (row.item != null) {
+                items.add(row.item);
+            }
+        }
+        itemRepository.saveAll(items);
+
+        for (Row row : chunk) {
+            generator.writeStartObject();
+            generator.writeNumberField("index", row.index);
+            if (row.item != null) {
+                generator.writeNumberField("id", row.item.getId());
+            } else {
+                generator.writeArrayFieldStart("errors");
+                for (ObjectError error : row.errors) {
+                    generator.writeStartObject();
+                    if (error instanceof FieldError) {
+                        generator.writeStringField("field", ((FieldError) error).getField());
+                    }
+                    generator.writeStringField("code", error.getCode());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndObject();
+        }
+        generator.flush();
+        chunk.clear();
+    }
+
+    private static class Row {
+        final int index;
+        final Item item;
+        final List<ObjectError> errors;
+
+        private Row(int index, Item item, List<ObjectError> errors) {
+            this.index = index;
+            this.item = item;
+            this.errors = errors;
+        }
+
+        static Row valid(int index, Item item) {
+            return new Row(index, item, null);
+        }
+
+        static Row failed(int index, List<ObjectError> errors) {
+            return new Row(index, null, errors);
+        }
+    }
+}
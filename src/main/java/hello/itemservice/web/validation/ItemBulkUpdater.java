@@ -0,0 +1,205 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemBulkResult;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.validation.MinTotalValidator;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import hello.itemservice.web.validation.form.ItemUpdateFormValidator;
+import lombok.Data;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 여러 상품을 한 번에 수정, 삭제한다.
+ * 모든 수정 내용을 먼저 검증(ItemUpdateForm 룰 + totalPriceMin)하고, 하나라도 실패하면 아무것도 바꾸지 않는다.
+ * 모두 통과하면 ItemRepository.applyAll 로 한 번에 반영한다.
+ *
+ * 요청 본문: {"update": {"1": {ItemUpdateForm}, ...}, "delete": [3, 4]}
+ * 결과는 요청한 id 마다 하나씩 [{"id":1,"status":"updated"}, {"id":2,"status":"rejected","errors":[{"field":"price","code":"Range"}]}, ...]
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemBulkUpdater {
+
+    private final ItemRepository itemRepository;
+    private final ItemUpdateFormValidator itemUpdateFormValidator;
+
+    /**
+     * @param updates id -> 수정 내용, form 의 version 이 저장된 버전과 다르면 staleVersion 으로 거절한다.
+     * @param deleteIds 삭제할 id, 이미 없는 id 는 notFound 로 알려주고 실패로 보지 않는다. null id 는 무시한다.
+     */
+    public List<Result> apply(Map<Long, ItemUpdateForm> updates, Collection<Long> deleteIds) {
+        Set<Long> deletes = new LinkedHashSet<>(deleteIds);
+        deletes.remove(null);
+        Map<Long, Result> results = new LinkedHashMap<>();
+        Map<Long, Item> items = new LinkedHashMap<>();
+        for (Map.Entry<Long, ItemUpdateForm> entry : updates.entrySet()) {
+            if (entry.getValue() == null) {
+                results.put(entry.getKey(), Result.rejected(entry.getKey(),
+                        List.of(new ObjectError("item", new String[]{"required"}, null, null))));
+                continue;
+            }
+            BindingResult bindingResult = validate(entry.getKey(), entry.getValue());
+            //같은 id 를 수정하면서 삭제할 수는 없다. (duplicate 는 상품명 중복 코드)
+            if (deletes.contains(entry.getKey())) {
+                bindingResult.reject("updateAndDelete");
+            }
+            if (bindingResult.hasErrors()) {
+                results.put(entry.getKey(), Result.rejected(entry.getKey(), bindingResult.getAllErrors()));
+                continue;
+            }
+            ItemUpdateForm form = entry.getValue();
+            Item item = new Item(form.getItemName(), form.getPrice(), form.getQuantity());
+            item.setVersion(form.getVersion());
+            items.put(entry.getKey(), item);
+        }
+
+        if (!results.isEmpty()) {
+            return skipRest(results, updates.keySet(), deletes);
+        }
+
+        ItemBulkResult bulkResult = itemRepository.applyAll(items, deletes);
+        for (Long id : bulkResult.getConflicts()) {
+            String code = itemRepository.findById(id) == null ? "notFound" : "staleVersion";
+            results.put(id, Result.rejected(id, List.of(new ObjectError("item", new String[]{code}, null, null))));
+        }
+        if (!bulkResult.isApplied()) {
+            return skipRest(results, updates.keySet(), deletes);
+        }
+
+        bulkResult.getUpdated().forEach(id -> results.put(id, new Result(id, "updated", null)));
+        bulkResult.getDeleted().forEach(id -> results.put(id, new Result(id, "deleted", null)));
+        for (Long id : deletes) {
+            results.putIfAbsent(id, new Result(id, "notFound", null));
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    public List<Result> updateAll(Map<Long, ItemUpdateForm> updates) {
+        return apply(updates, List.of());
+    }
+
+    public List<Result> deleteByIds(Collection<Long> ids) {
+        return apply(Map.of(), ids);
+    }
+
+    /**
+     * filter 를 통과한 상품마다 change 로 수정 내용을 만든다. (예: 특정 가격대의 가격을 일괄 인상)
+     * 고른 뒤에 다른 요청이 먼저 수정한 상품이 있으면 staleVersion 으로 전체를 거절한다.
+     */
+    public List<Result> updateWhere(Predicate<Item> filter, Consumer<ItemUpdateForm> change) {
+        Map<Long, ItemUpdateForm> updates = new LinkedHashMap<>();
+        for (Item item : itemRepository.findAll()) {
+            if (filter.test(item)) {
+                ItemUpdateForm form = new ItemUpdateForm();
+                form.setId(item.getId());
+                form.setItemName(item.getItemName());
+                form.setPrice(item.getPrice());
+                form.setQuantity(item.getQuantity());
+                form.setVersion(item.getVersion());
+                change.accept(form);
+                updates.put(item.getId(), form);
+            }
+        }
+        return updateAll(updates);
+    }
+
+    //삭제에는 검증할 내용이 없으므로 저장소에서 고르고 지우는 것을 한 번에 한다.
+    public List<Result> deleteWhere(Predicate<Item> filter) {
+        List<Result> results = new ArrayList<>();
+        for (Long id : itemRepository.deleteWhere(filter).getDeleted()) {
+            results.add(new Result(id, "deleted", null));
+        }
+        return results;
+    }
+
+    private BindingResult validate(Long id, ItemUpdateForm form) {
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+        itemUpdateFormValidator.validate(form, bindingResult);
+        if (form.getId() != null && !form.getId().equals(id)) {
+            bindingResult.rejectValue("id", "mismatch");
+        }
+
+        //특정 필드가 아닌 복합 룰 검증 (ItemUpdateForm 의 @MinTotal)
+        MinTotalValidator.check(form, bindingResult);
+        return bindingResult;
+    }
+
+    //검증은 통과했지만 다른 항목 때문에 반영하지 않은 id
+    private static List<Result> skipRest(Map<Long, Result> results, Collection<Long> updateIds, Collection<Long> deleteIds) {
+        for (Long id : updateIds) {
+            results.putIfAbsent(id, new Result(id, "skipped", null));
+        }
+        for (Long id : deleteIds) {
+            results.putIfAbsent(id, new Result(id, "skipped", null));
+        }
+        return new ArrayList<>(results.values());
+    }
+
+    //빠지거나 null 로 보내도 빈 값으로 본다.
+    @Data
+    public static class Request {
+        private Map<Long, ItemUpdateForm> update = new LinkedHashMap<>();
+        private List<Long> delete = new ArrayList<>();
+
+        public void setUpdate(Map<Long, ItemUpdateForm> update) {
+            this.update = update != null ? update : new LinkedHashMap<>();
+        }
+
+        public void setDelete(List<Long> delete) {
+            this.delete = delete != null ? delete : new ArrayList<>();
+        }
+    }
+
+    @Getter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Result {
+        private final Long id;
+        private final String status;
+        private final List<Error> errors;
+
+        Result(Long id, String status, List<Error> errors) {
+            this.id = id;
+            this.status = status;
+            this.errors = errors;
+        }
+
+        static Result rejected(Long id, List<ObjectError> objectErrors) {
+            List<Error> errors = new ArrayList<>(objectErrors.size());
+            for (ObjectError error : objectErrors) {
+                String field = error instanceof FieldError ? ((FieldError) error).getField() : null;
+                errors.add(new Error(field, error.getCode()));
+            }
+            return new Result(id, "rejected", errors);
+        }
+    }
+
+    @Getter
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public static class Error {
+        private final String field;
+        private final String code;
+
+        Error(String field, String code) {
+            this.field = field;
+            this.code = code;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.ItemChangeEvent;
+import hello.itemservice.domain.item.ItemChangeLog;
+import hello.itemservice.domain.item.ItemRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ItemRepository 의 변경 이벤트를 SSE 로 내보낸다.
+ * 스레드 하나가 poll-interval 마다 구독자별 순서 번호부터 링 버퍼를 이어서 읽어 구독자의 큐(queue-size 개)에 넣고,
+ * 실제 전송은 별도 스레드에서 구독자마다 하나씩 한다. 느린 구독자가 있어도 읽는 스레드와 다른 구독자는 기다리지 않는다.
+ *
+ * 전송 하나가 send-timeout 보다 오래 걸리거나 큐가 send-timeout 동안 계속 가득 차 있으면 연결을 끊는다.
+ * 받는 쪽은 다시 연결해서 Last-Event-ID 다음부터 이어서 받으면 된다.
+ *
+ * 이벤트: id = 저장소 epoch-순서 번호, event = created / updated / deleted / cleared, data = ItemChangeEvent JSON
+ * 끊긴 뒤 다시 연결하면 Last-Event-ID 다음부터 받는다. (EventSource 가 자동으로 보낸다)
+ * 너무 늦어서 그 사이의 변경이 버퍼에서 밀려났거나, Last-Event-ID 의 epoch 가 지금과 다르거나(재시작, 저장소 교체),
+ * 아직 없는 순서 번호부터 요청하면 "gap" 이벤트(data = 이어서 보내는 순서 번호)를 보낸다.
+ * 받는 쪽은 전체를 다시 조회한 뒤 이어지는 이벤트를 적용해야 한다.
+ */
+@Slf4j
+@Component
+public class ItemChangeStream implements DisposableBean {
+
+    static final int BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ItemChangeLog changeLog;
+    private final long timeout;
+    private final int queueSize;
+    private final long sendTimeoutNanos;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "item-change-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    //구독자마다 많아야 하나씩 사용한다. 전송이 막힌 구독자는 끊으므로 스레드가 계속 늘어나지 않는다.
+    private final ExecutorService dispatcher = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "item-change-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ItemChangeStream(ItemRepository itemRepository,
+                            @Value("${item.changes.poll-interval-ms:100}") long pollInterval,
+                            @Value("${item.changes.timeout-ms:1800000}") long timeout,
+                            @Value("${item.changes.queue-size:1000}") int queueSize,
+                            @Value("${item.changes.send-timeout-ms:10000}") long sendTimeout) {
+        this.itemRepository = itemRepository;
+        this.changeLog = itemRepository.getChangeLog();
+        this.timeout = timeout;
+        this.queueSize = queueSize;
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeout);
+        scheduler.scheduleWithFixedDelay(this::poll, pollInterval, pollInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param from 처음 받을 순서 번호, null 이면 지금 이후의 변경부터 받는다.
+     */
+    public SseEmitter subscribe(Long from) {
+        return subscribe(from, new SseEmitter(timeout));
+    }
+
+    /**
+     * @param lastEventId 다시 연결할 때 받은 Last-Event-ID (epoch-순서 번호), epoch 가 다르거나 형식이 맞지 않으면 gap 부터 보낸다.
+     */
+    public SseEmitter resume(String lastEventId) {
+        return resume(lastEventId, new SseEmitter(timeout));
+    }
+
+    SseEmitter subscribe(Long from, SseEmitter emitter) {
+        return subscribe(emitter, from != null ? Math.max(from, 1) : changeLog.getSequence() + 1, false);
+    }
+
+    SseEmitter resume(String lastEventId, SseEmitter emitter) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator > 0) {
+            try {
+                long epoch = Long.parseLong(lastEventId.substring(0, separator));
+                long sequence = Long.parseLong(lastEventId.substring(separator + 1));
+                if (epoch == itemRepository.getEpoch() && sequence >= 0) {
+                    return subscribe(emitter, sequence + 1, false);
+                }
+            } catch (NumberFormatException e) {
+                log.debug("잘못된 Last-Event-ID={}", lastEventId);
+            }
+        }
+        return subscribe(emitter, changeLog.getSequence() + 1, true);
+    }
+
+    private SseEmitter subscribe(SseEmitter emitter, long next, boolean gap) {
+        Subscriber subscriber = new Subscriber(emitter, next, gap);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    void poll() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isSlow(now)) {
+                log.info("느린 변경 구독 종료 next={}", subscriber.next);
+                drop(subscriber, null);
+                continue;
+            }
+            subscriber.fill(now);
+            subscriber.schedule();
+        }
+    }
+
+    //전송 중인 스레드가 emitter 를 잡고 있을 수 있으므로 완료 처리도 전송 스레드에서 한다.
+    private void drop(Subscriber subscriber, Throwable error) {
+        subscribers.remove(subscriber);
+        subscriber.queue.clear();
+        dispatcher.execute(() -> {
+            if (error != null) {
+                subscriber.emitter.completeWithError(error);
+            } else {
+                subscriber.emitter.complete();
+            }
+        });
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> queue = new ArrayBlockingQueue<>(queueSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        //읽는 스레드에서만 사용한다.
+        private long next;
+        //이어 받을 위치를 알 수 없어서 처음에 gap 을 보내야 한다.
+        private boolean gap;
+        private long fullSince;
+        //진행 중인 전송을 시작한 시각, 0 이면 전송 중이 아니다.
+        private volatile long sendStarted;
+
+        Subscriber(SseEmitter emitter, long next, boolean gap) {
+            this.emitter = emitter;
+            this.next = next;
+            this.gap = gap;
+        }
+
+        boolean isSlow(long now) {
+            long started = sendStarted;
+            return (started != 0 && now - started > sendTimeoutNanos)
+                    || (fullSince != 0 && now - fullSince > sendTimeoutNanos);
+        }
+
+        //큐에 들어갈 만큼만 읽는다. 큐가 가득 차서 더 읽지 못하면 처음 그렇게 된 시각을 기록한다. (빈 자리가 생기면 지운다)
+        void fill(long now) {
+            if (queue.size() < queueSize) {
+                fullSince = 0;
+            }
+            //gap 을 확인하기 전에 epoch 를 읽는다. 그 사이에 저장소가 바뀌면 다음 연결에서 한 번 더 gap 을 받을 뿐이다.
+            long epoch = itemRepository.getEpoch();
+            long oldest = changeLog.getOldestSequence();
+            long latest = changeLog.getSequence();
+            if (gap || next < oldest || next > latest + 1) {
+                long resume = next < oldest ? oldest : Math.min(next, latest + 1);
+                if (!queue.offer(SseEmitter.event()
+                        .id(epoch + "-" + (resume - 1))
+                        .name("gap")
+                        .data(Map.of("next", resume), MediaType.APPLICATION_JSON))) {
+                    markFull(now);
+                    return;
+                }
+                next = resume;
+                gap = false;
+            }
+            int capacity;
+            while ((capacity = queueSize - queue.size()) > 0) {
+                List<ItemChangeEvent> events = changeLog.read(next, Math.min(capacity, BATCH_SIZE));
+                if (events.isEmpty()) {
+                    return;
+                }
+                for (ItemChangeEvent event : events) {
+                    queue.offer(SseEmitter.event()
+                            .id(epoch + "-" + event.getSequence())
+                            .name(event.getType().name().toLowerCase(Locale.ROOT))
+                            .data(event, MediaType.APPLICATION_JSON));
+                    next = event.getSequence() + 1;
+                }
+            }
+            if (changeLog.getSequence() >= next) {
+                markFull(now);
+            }
+        }
+
+        private void markFull(long now) {
+            if (fullSince == 0) {
+                fullSince = now;
+            }
+        }
+
+        void schedule() {
+            if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this::send);
+            }
+        }
+
+        //구독자마다 한 번에 하나의 스레드에서만 실행된다.
+        private void send() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while ((event = queue.poll()) != null) {
+                    sendStarted = System.nanoTime();
+                    emitter.send(event);
+                    sendStarted = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                //연결이 끊겼거나 이미 완료된 구독
+                log.debug("변경 구독 종료 next={}", next, e);
+                drop(this, e);
+            } finally {
+                sendStarted = 0;
+                scheduled.set(false);
+            }
+            if (subscribers.contains(this)) {
+                schedule(); //poll 이 넣은 이벤트를 놓치지 않는다.
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemChangeEvent;
+import hello.itemservice.domain.item.ItemChangeLog;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.message.MessagesReloadedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * V4 상품 화면에서 매번 같은 결과가 나오는 부분을 캐시한다.
+ * - 라벨, 버튼: 목록, 상세, 등록, 수정 화면의 고정 문구(LABEL_CODES)를 Locale 별로 한 번만 찾는다.
+ *   템플릿은 #{...} 대신 ${labels['...']} 로 읽는다. 메시지 파일을 다시 읽으면 지운다.
+ * - 표 머리글: 라벨로 만든 HTML 을 Locale 별로 캐시한다.
+ * - 상품 행: (저장소 epoch, id, version) 이 같으면 다시 만들지 않는다. version 은 저장, 수정할 때 바뀌고
+ *   epoch 는 저장소를 비우거나 스냅샷으로 교체할 때 바뀐다. (같은 id, version 으로 내용이 달라질 수 있다)
+ * 템플릿에서는 th:utext 로 그대로 출력하므로 상품명은 여기서 HTML 이스케이프한다.
+ *
+ * 상품 행은 item.list.row-cache.max-size 개까지만 보관한다. 목록을 그릴 때 저장소의 변경 이벤트를 이어서 읽어
+ * 수정, 삭제된 상품의 행은 지우고, 저장소를 비우거나 교체했으면 전체를 지운다.
+ * 그래도 넘치면 최근 사용 여부와 상관없이 3/4 까지 줄인다. (행은 다시 만들면 되므로 정확한 LRU 는 하지 않는다)
+ */
+@Component
+public class ItemListFragments {
+
+    //V4 템플릿(items, item, addForm, editForm)의 고정 문구
+    static final List<String> LABEL_CODES = List.of(
+            "label.item.id", "label.item.itemName", "label.item.price", "label.item.quantity",
+            "page.items", "page.item", "page.addItem", "page.updateItem", "page.prev", "page.next", "page.search",
+            "button.save", "button.cancel");
+
+    //요청마다 다른 Locale 이 와도 캐시가 계속 늘어나지 않도록 한다. 넘치면 캐시하지 않고 그때마다 찾는다.
+    static final int MAX_LOCALES = 64;
+
+    private final MessageSource messageSource;
+    private final ItemRepository itemRepository;
+    private final ItemChangeLog changeLog;
+    private final int maxRows;
+
+    private final Map<Locale, Map<String, String>> labels = new ConcurrentHashMap<>();
+    private final Map<Locale, String> headers = new ConcurrentHashMap<>();
+    //메시지 파일을 다시 읽은 횟수와 시각, 화면의 ETag, Last-Modified 에 넣어서 304 로 이전 문구가 남지 않게 한다.
+    private final AtomicLong messageGeneration = new AtomicLong();
+    private volatile long messagesReloadedAt;
+    private final Map<Long, Row> rows = new ConcurrentHashMap<>();
+    //정리는 한 스레드만 한다. 다른 스레드는 기다리지 않고 그냥 그린다.
+    private final ReentrantLock cleanupLock = new ReentrantLock();
+    private long nextSequence;
+
+    public ItemListFragments(MessageSource messageSource, ItemRepository itemRepository,
+                             @Value("${item.list.row-cache.max-size:10000}") int maxRows) {
+        this.messageSource = messageSource;
+        this.itemRepository = itemRepository;
+        this.changeLog = itemRepository.getChangeLog();
+        this.maxRows = maxRows;
+        this.nextSequence = changeLog.getSequence() + 1;
+    }
+
+    /**
+     * LABEL_CODES 의 메시지, 템플릿의 th:text 가 이스케이프하므로 여기서는 이스케이프하지 않는다.
+     */
+    public Map<String, String> labels(Locale locale) {
+        Map<String, String> cached = labels.get(locale);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, String> resolved = new HashMap<>();
+        for (String code : LABEL_CODES) {
+            resolved.put(code, messageSource.getMessage(code, null, locale));
+        }
+        resolved = Collections.unmodifiableMap(resolved);
+        if (labels.size() < MAX_LOCALES) {
+            labels.putIfAbsent(locale, resolved);
+        }
+        return resolved;
+    }
+
+    public String header(Locale locale) {
+        String cached = headers.get(locale);
+        if (cached != null) {
+            return cached;
+        }
+        Map<String, String> label = labels(locale);
+        String header = "<tr>" +
+                "<th>" + escape(label.get("label.item.id")) + "</th>" +
+                "<th>" + escape(label.get("label.item.itemName")) + "</th>" +
+                "<th>" + escape(label.get("label.item.price")) + "</th>" +
+                "<th>" + escape(label.get("label.item.quantity")) + "</th>" +
+                "</tr>";
+        if (headers.size() < MAX_LOCALES) {
+            headers.putIfAbsent(locale, header);
+        }
+        return header;
+    }
+
+    @EventListener(MessagesReloadedEvent.class)
+    public void clearLabels() {
+        labels.clear();
+        headers.clear();
+        messagesReloadedAt = System.currentTimeMillis();
+        messageGeneration.incrementAndGet();
+    }
+
+    public long getMessageGeneration() {
+        return messageGeneration.get();
+    }
+
+    public long getMessagesReloadedAt() {
+        return messagesReloadedAt;
+    }
+
+    /**
+     * @param basePath 컨텍스트 경로를 포함한 상품 상세 경로 (예: /validation/v4/items)
+     */
+    public String rows(List<Item> items, String basePath) {
+        cleanup();
+        StringBuilder html = new StringBuilder(items.size() * 160);
+        for (Item item : items) {
+            html.append(row(item, basePath));
+        }
+        return html.toString();
+    }
+
+    private String row(Item item, String basePath) {
+        long epoch = itemRepository.getEpoch();
+        Row cached = rows.get(item.getId());
+        if (cached != null && cached.matches(epoch, item.getVersion(), basePath)) {
+            return cached.html;
+        }
+        String href = basePath + "/" + item.getId();
+        String html = "<tr>" +
+                "<td><a href=\"" + href + "\">" + item.getId() + "</a></td>" +
+                "<td><a href=\"" + href + "\">" + escape(item.getItemName()) + "</a></td>" +
+                "<td>" + escape(item.getPrice()) + "</td>" +
+                "<td>" + escape(item.getQuantity()) + "</td>" +
+                "</tr>";
+        rows.put(item.getId(), new Row(epoch, item.getVersion(), basePath, html));
+        return html;
+    }
+
+    //행 수를 확인하기 위한 용도 (테스트)
+    int cachedRows() {
+        return rows.size();
+    }
+
+    private void cleanup() {
+        if (!cleanupLock.tryLock()) {
+            return;
+        }
+        try {
+            evictChanged();
+            if (rows.size() > maxRows) {
+                Iterator<Long> ids = rows.keySet().iterator();
+                while (rows.size() > maxRows - maxRows / 4 && ids.hasNext()) {
+                    ids.next();
+                    ids.remove();
+                }
+            }
+        } finally {
+            cleanupLock.unlock();
+        }
+    }
+
+    private void evictChanged() {
+        if (nextSequence < changeLog.getOldestSequence()) {
+            //읽지 못한 변경이 버퍼에서 밀려났으면 어떤 행이 바뀌었는지 모른다.
+            rows.clear();
+            nextSequence = changeLog.getSequence() + 1;
+            return;
+        }
+        List<ItemChangeEvent> events;
+        while (!(events = changeLog.read(nextSequence, ItemChangeStream.BATCH_SIZE)).isEmpty()) {
+            for (ItemChangeEvent event : events) {
+                switch (event.getType()) {
+                    case UPDATED:
+                    case DELETED:
+                        rows.remove(event.getBefore().getId());
+                        break;
+                    case CLEARED:
+                        rows.clear();
+                        break;
+                    default:
+                        break;
+                }
+            }
+            nextSequence = events.get(events.size() - 1).getSequence() + 1;
+        }
+    }
+
+    private static String escape(Object value) {
+        return value == null ? "" : HtmlUtils.htmlEscape(value.toString());
+    }
+
+    private static class Row {
+        private final long epoch;
+        private final Long version;
+        private final String basePath;
+        private final String html;
+
+        Row(long epoch, Long version, String basePath, String html) {
+            this.epoch = epoch;
+            this.version = version;
+            this.basePath = basePath;
+            this.html = html;
+        }
+
+        boolean matches(long epoch, Long version, String basePath) {
+            return this.epoch == epoch && this.version != null && this.version.equals(version) && this.basePath.equals(basePath);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.validation.MinTotalValidator;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemSaveFormValidator;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import hello.itemservice.web.validation.form.ItemUpdateFormValidator;
+import hello.itemservice.web.validation.rule.RuleEngineValidator;
+import hello.itemservice.web.validation.rule.ValidationRule;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * V4 폼 검증 규칙
+ * fields: 필드 단위 검증 (애노테이션과 같은 규칙)
+ * totalPriceMin: 가격 * 수량 복합 룰 (폼의 @MinTotal)
+ * 느린 규칙(이름 중복 확인, 외부 조회 등)은 ValidationRule.async 로 추가하면 검증 전용 스레드 풀에서 동시에 실행된다.
+ */
+@Configuration
+public class ItemRuleConfig {
+
+    //풀과 대기열이 모두 차면 요청 스레드에서 직접 실행한다.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService validationRuleExecutor(@Value("${validation.rules.threads:4}") int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(threads * 64),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "validation-rule-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Bean
+    public RuleEngineValidator<ItemSaveForm> itemSaveFormRules(ItemSaveFormValidator itemSaveFormValidator,
+                                                               ExecutorService validationRuleExecutor) {
+        return new RuleEngineValidator<>(ItemSaveForm.class, List.of(
+                ValidationRule.inline("fields", itemSaveFormValidator::validate),
+                ValidationRule.<ItemSaveForm>inline("totalPriceMin", MinTotalValidator::check)
+        ), validationRuleExecutor);
+    }
+
+    @Bean
+    public RuleEngineValidator<ItemUpdateForm> itemUpdateFormRules(ItemUpdateFormValidator itemUpdateFormValidator,
+                                                                   ExecutorService validationRuleExecutor) {
+        return new RuleEngineValidator<>(ItemUpdateForm.class, List.of(
+                ValidationRule.inline("fields", itemUpdateFormValidator::validate),
+                ValidationRule.<ItemUpdateForm>inline("totalPriceMin", MinTotalValidator::check)
+        ), validationRuleExecutor);
+    }
+}
@@ -1,14 +1,20 @@
 package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.validation.MinTotalValidator;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.validation.Errors;
 import org.springframework.validation.Validator;
 //컨트롤러에서 검증 로직이 차지하는 부분이 매우 커서 별도의 클래스로 역할을 분리
 @Component //스프링 빈에 등록
+@RequiredArgsConstructor
 public class ItemValidator implements Validator {
 
+    private final ItemRepository itemRepository;
+
     @Override
     public boolean supports(Class<?> clazz) {
         return Item.class.isAssignableFrom(clazz);
@@ -25,25 +31,47 @@ public class ItemValidator implements Validator {
 
         //rejectValue(), reject(): FieldError, ObjectError를 직접 생성하지 않고 깔끔하게 검증 오류를 다룰 수 있다.
         //검증 로직(필드 룰)
+        //@ErrorBudget 한도만큼 오류가 쌓이면 나머지 검증은 하지 않는다.
+        int budget = ErrorBudgets.resolve(item);
+        if(ErrorBudgets.exhausted(errors, budget)){
+            return;
+        }
         if(!StringUtils.hasText(item.getItemName())){
             errors.rejectValue("itemName", "required");
-
+            if(ErrorBudgets.exhausted(errors, budget)){
+                return;
+            }
+        } else if(isDuplicateName(item)){
+            errors.rejectValue("itemName", "duplicate");
+            if(ErrorBudgets.exhausted(errors, budget)){
+                return;
+            }
         }
         if(item.getPrice() == null || item.getPrice() < 1000  || item.getPrice() > 1000000){
             errors.rejectValue("price", "range", new Object[]{1000, 1000000}, null);
+            if(ErrorBudgets.exhausted(errors, budget)){
+                return;
+            }
         }
         if(item.getQuantity() == null || item.getQuantity() >= 9999){
             errors.rejectValue("quantity", "max", new Object[]{9999}, null);
+            if(ErrorBudgets.exhausted(errors, budget)){
+                return;
+            }
         }
 
-        //특정 필드가 아닌 복합 룰 검증
-        if(item.getPrice() != null && item.getQuantity() !=null){
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if(resultPrice <10000){
-                //특정 필드의 오류가 아닌 global 오류이기 때문
-                errors.reject("totalPriceMin" , new Object[]{10000, resultPrice},null);
+        //특정 필드가 아닌 복합 룰 검증, 특정 필드의 오류가 아닌 global 오류이기 때문
+        MinTotalValidator.check(item.getPrice(), item.getQuantity(), Item.MIN_TOTAL_PRICE, errors);
+
+    }
+
+    //상품명 인덱스로 같은 이름을 찾는다. 수정할 때는 자기 자신은 제외한다.
+    private boolean isDuplicateName(Item item) {
+        for (Item found : itemRepository.findByItemName(item.getItemName())) {
+            if (!found.getId().equals(item.getId())) {
+                return true;
             }
         }
-
+        return false;
     }
 }
@@ -0,0 +1,169 @@
+package hello.itemservice.web.validation;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 요청 본문을 Servlet 3.1 논블로킹 I/O(ReadListener)로 모두 읽은 뒤 컨트롤러로 넘긴다.
+ * 느린 클라이언트가 본문을 보내는 동안 Tomcat 워커 스레드를 붙잡지 않는다.
+ * 본문을 다 읽으면 같은 요청을 다시 디스패치하고, @RequestBody 는 메모리에 있는 본문을 바로 읽는다.
+ * 컨트롤러와 응답 형식(오류 목록 JSON)은 그대로다.
+ */
+public class NonBlockingBodyFilter implements Filter {
+
+    private final int maxBodySize;
+
+    public NonBlockingBodyFilter(int maxBodySize) {
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain chain)
+            throws IOException, ServletException {
+        HttpServletRequest request = (HttpServletRequest) servletRequest;
+        HttpServletResponse response = (HttpServletResponse) servletResponse;
+        if (!"POST".equals(request.getMethod()) || !request.isAsyncSupported()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        BufferedBodyRequest bufferedRequest = new BufferedBodyRequest(request);
+        AsyncContext asyncContext = request.startAsync(bufferedRequest, response);
+        asyncContext.setTimeout(0); //본문을 받는 시간은 커넥터의 타임아웃을 따른다.
+
+        ServletInputStream in = request.getInputStream();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        in.setReadListener(new ReadListener() {
+            private final byte[] buffer = new byte[8192];
+            private boolean rejected;
+
+            @Override
+            public void onDataAvailable() throws IOException {
+                while (!rejected && in.isReady() && !in.isFinished()) {
+                    int read = in.read(buffer);
+                    if (read > 0) {
+                        body.write(buffer, 0, read);
+                    }
+                    if (body.size() > maxBodySize) {
+                        rejected = true;
+                        response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+                        asyncContext.complete();
+                        return;
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                if (rejected) {
+                    return;
+                }
+                bufferedRequest.body = body.toByteArray();
+                asyncContext.dispatch();
+            }
+
+            //본문을 끝까지 받지 못했으면(연결 끊김, 읽기 타임아웃) 빈 200 이 아니라 400 으로 끝낸다.
+            @Override
+            public void onError(Throwable t) {
+                if (rejected) {
+                    return;
+                }
+                rejected = true;
+                try {
+                    if (!response.isCommitted()) {
+                        response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+                    }
+                } catch (IOException e) {
+                    //클라이언트가 이미 끊었으면 응답을 보낼 수 없다.
+                } finally {
+                    asyncContext.complete();
+                }
+            }
+        });
+    }
+
+    static class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        volatile byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (body == null) {
+                return super.getInputStream();
+            }
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                //본문이 이미 메모리에 있으므로 바로 모두 읽을 수 있다고 알린다.
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (body == null) {
+                return super.getReader();
+            }
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding);
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body == null ? super.getContentLength() : body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body == null ? super.getContentLengthLong() : body.length;
+        }
+    }
+}
@@ -1,28 +1,127 @@
 package hello.itemservice.web.validation;
+import hello.itemservice.domain.item.ItemPage;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ItemStats;
 import hello.itemservice.web.validation.form.ItemSaveForm;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
 @Slf4j
 @RestController
 @RequestMapping("/validation/api/items")
+@RequiredArgsConstructor
 public class ValidationItemController {
+
+    private final ItemBatchImporter itemBatchImporter;
+    private final ApiErrorWriter apiErrorWriter;
+    private final ItemRepository itemRepository;
+    private final ItemBulkUpdater itemBulkUpdater;
+    private final ItemChangeStream itemChangeStream;
+
+    //외부에 공개된 API 라서 잘못된 요청은 첫 오류만 검증하고 돌려준다.
+    @ErrorBudget(1)
     @PostMapping("/add")
-    public Object addItem(@RequestBody @Validated ItemSaveForm form, BindingResult bindingResult) {
+    public Object addItem(@RequestBody @Validated ItemSaveForm form, BindingResult bindingResult,
+                          Locale locale, HttpServletResponse response) throws IOException {
         log.info("API 컨트롤러 호출");
 
+        //오류는 {field, code, message} 형식으로 응답에 직접 쓴다.
         if (bindingResult.hasErrors()) {
             log.info("검증 오류 발생 errors={}", bindingResult);
-            return bindingResult.getAllErrors();
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            apiErrorWriter.write(bindingResult, locale, response.getOutputStream());
+            return null;
         }
 
         log.info("성공 로직 실행");
         return form;
     }
+
+    //가격 범위 검색, 가격 인덱스에서 바로 찾는다.
+    @GetMapping(params = {"minPrice", "maxPrice"})
+    public ItemPage itemsByPrice(@RequestParam int minPrice, @RequestParam int maxPrice,
+                                 @RequestParam(defaultValue = "0") int page,
+                                 @RequestParam(defaultValue = "20") int size) {
+        return itemRepository.findPageByPriceBetween(minPrice, maxPrice, ItemRepository.offset(page, size), size);
+    }
+
+    //상품 수, 재고 금액(가격 * 수량) 합계, 최소, 최대
+    @GetMapping("/stats")
+    public ItemStats stats() {
+        return itemRepository.getStats();
+    }
+
+    //저장소 전체를 바이너리 스냅샷으로 내려준다. (compress=true 면 gzip)
+    @GetMapping("/snapshot")
+    public void exportSnapshot(@RequestParam(defaultValue = "false") boolean compress,
+                               HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"items.snapshot\"");
+        long count = itemRepository.exportSnapshot(Channels.newChannel(response.getOutputStream()), compress);
+        log.info("스냅샷 내보내기 count={}", count);
+    }
+
+    //스냅샷으로 저장소를 교체한다. 끝까지 읽고 나서 교체하므로 손상된 스냅샷이면 저장소는 그대로고 400 으로 응답한다.
+    @PostMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> importSnapshot(HttpServletRequest request) throws IOException {
+        long count;
+        try {
+            count = itemRepository.importSnapshot(Channels.newChannel(request.getInputStream()));
+        } catch (IllegalArgumentException e) {
+            log.info("스냅샷 가져오기 실패 {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("code", "invalidSnapshot", "message", e.getMessage()));
+        }
+        log.info("스냅샷 가져오기 count={}", count);
+        return ResponseEntity.ok(Map.of("count", count));
+    }
+
+    //여러 상품을 한 번에 수정, 삭제한다. 모두 검증을 통과해야 반영하고, 결과는 id 마다 한 줄이다.
+    @PostMapping("/bulk")
+    public List<ItemBulkUpdater.Result> bulk(@RequestBody ItemBulkUpdater.Request request) {
+        log.info("API 대량 수정 호출 update={}, delete={}", request.getUpdate().size(), request.getDelete().size());
+        return itemBulkUpdater.apply(request.getUpdate(), request.getDelete());
+    }
+
+    //변경 이벤트 스트림 (SSE), from 또는 다시 연결할 때 보내는 Last-Event-ID 다음부터 이어서 받는다.
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestParam(required = false) Long from,
+                              @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        if (from == null && lastEventId != null) {
+            return itemChangeStream.resume(lastEventId);
+        }
+        return itemChangeStream.subscribe(from);
+    }
+
+    //@RequestBody 로 전체를 객체로 바꾸지 않고 요청 본문을 스트림으로 읽는다. (JSON 배열 또는 NDJSON)
+    @PostMapping("/batch")
+    public void batch(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        log.info("API 대량 등록 호출");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        itemBatchImporter.importItems(request.getInputStream(), response.getOutputStream());
+    }
 }
 
 //    @ModelAttribute 는 필드 단위로 정교하게 바인딩이 적용된다. 특정 필드가 바인딩 되지 않아도 나머지
@@ -1,7 +1,9 @@
 package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
 import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ItemSort;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
@@ -11,7 +13,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -23,9 +24,15 @@ public class ValidationItemControllerV1 {
     private final ItemRepository itemRepository;
 
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
+                        @RequestParam(defaultValue = "id") String sort,
+                        Model model) {
+        ItemSort itemSort = ItemSort.parse(sort);
+        ItemPage itemPage = itemRepository.findPage(ItemRepository.offset(page, size), size, itemSort, null);
+        model.addAttribute("items", itemPage.getContent());
+        model.addAttribute("page", itemPage);
+        model.addAttribute("sort", itemSort.toString());
         return "validation/v1/items";
     }
 
@@ -1,7 +1,10 @@
 package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
 import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ItemSort;
+import hello.itemservice.validation.MinTotalValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,7 +20,6 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 @Slf4j
@@ -28,13 +30,17 @@ public class ValidationItemControllerV2 {
 
     private final ItemRepository itemRepository;
     private final ItemValidator itemValidator; //스프링에서 빈 주입
+    private final ValidationMetrics validationMetrics;
+    private final ValidationResultCache validationResultCache;
 
     //컨트롤러가 호출될때마다 항상 불려져서 WebDataBinder가 매번 만들어지는데,그때  itemValidator를 넣어둔다.
     // 이렇게 WebDataBinder 에 검증기를 추가하면 해당 컨트롤러에서는 검증기를 자동으로 적용할 수 있다.
     // @InitBinder 해당 컨트롤러에만 영향을 준다. 글로벌 설정은 별도로 해야한다.
     @InitBinder
     public void init(WebDataBinder dataBinder){
-        dataBinder.addValidators(itemValidator);
+        //상품명 중복 확인은 저장소 상태에 따라 달라지므로 저장소 버전이 같을 때만 이전 결과를 사용한다.
+        dataBinder.addValidators(validationMetrics.timed("itemValidator",
+                validationResultCache.cached(itemValidator, itemRepository::getVersion)));
     }
 
     //@RequiredArgsConstructor있어서 생략가능
@@ -45,9 +51,15 @@ public class ValidationItemControllerV2 {
 //    }
 
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
+                        @RequestParam(defaultValue = "id") String sort,
+                        Model model) {
+        ItemSort itemSort = ItemSort.parse(sort);
+        ItemPage itemPage = itemRepository.findPage(ItemRepository.offset(page, size), size, itemSort, null);
+        model.addAttribute("items", itemPage.getContent());
+        model.addAttribute("page", itemPage);
+        model.addAttribute("sort", itemSort.toString());
         return "validation/v2/items";
     }
 
@@ -185,14 +197,8 @@ public class ValidationItemControllerV2 {
             bindingResult.addError(new FieldError("item", "quantity", item.getQuantity(),false, new String[]{"max.item.quantity"},new Object[]{9999}, null));
         }
 
-        //특정 필드가 아닌 복합 룰 검증
-        if(item.getPrice() != null && item.getQuantity() !=null){
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if(resultPrice <10000){
-                bindingResult.addError(new ObjectError("item", new String[]{"totalPriceMin"}, new Object[]{10000, resultPrice},null));   //특정 필드의 오류가 아닌 global 오류이기 때문
-                //특정 필드의 오류가 아닌 global 오류이기 때문
-            }
-        }
+        //특정 필드가 아닌 복합 룰 검증, 특정 필드의 오류가 아닌 global 오류이기 때문
+        MinTotalValidator.check(item.getPrice(), item.getQuantity(), Item.MIN_TOTAL_PRICE, bindingResult);
 
         //검증에 실패하면 다시 입력 폼으로
         if(bindingResult.hasErrors()){
@@ -232,13 +238,7 @@ public class ValidationItemControllerV2 {
         }
 
         //특정 필드가 아닌 복합 룰 검증
-        if(item.getPrice() != null && item.getQuantity() !=null){
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if(resultPrice <10000){
-                //특정 필드의 오류가 아닌 global 오류이기 때문
-                bindingResult.reject("totalPriceMin" , new Object[]{10000, resultPrice},null);
-            }
-        }
+        MinTotalValidator.check(item.getPrice(), item.getQuantity(), Item.MIN_TOTAL_PRICE, bindingResult);
 
         //검증에 실패하면 다시 입력 폼으로
         if(bindingResult.hasErrors()){
@@ -1,9 +1,12 @@
 package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
 import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ItemSort;
 import hello.itemservice.domain.item.SaveCheck;
 import hello.itemservice.domain.item.UpdateCheck;
+import hello.itemservice.validation.MinTotalValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
@@ -18,8 +21,6 @@ import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
-
 @Slf4j
 @Controller
 @RequestMapping("/validation/v3/items")
@@ -35,9 +36,15 @@ public class ValidationItemControllerV3 {
 //    }
 
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
+                        @RequestParam(defaultValue = "id") String sort,
+                        Model model) {
+        ItemSort itemSort = ItemSort.parse(sort);
+        ItemPage itemPage = itemRepository.findPage(ItemRepository.offset(page, size), size, itemSort, null);
+        model.addAttribute("items", itemPage.getContent());
+        model.addAttribute("page", itemPage);
+        model.addAttribute("sort", itemSort.toString());
         return "validation/v3/items";
     }
 
@@ -59,15 +66,8 @@ public class ValidationItemControllerV3 {
    // @PostMapping("/add")
     public String addItem(@Validated @ModelAttribute Item item, BindingResult bindingResult, RedirectAttributes redirectAttributes, Model model) {
 
-        //@ScriptAssert 를 사용하도 되지만 제약조건이 많아서 오브젝트 오류는 그냥 자바코드로 하자
-         //특정 필드가 아닌 복합 룰 검증
-         if(item.getPrice() != null && item.getQuantity() !=null){
-             int resultPrice = item.getPrice() * item.getQuantity();
-             if(resultPrice <10000){
-                 //특정 필드의 오류가 아닌 global 오류이기 때문
-                 bindingResult.reject("totalPriceMin" , new Object[]{10000, resultPrice},null);
-             }
-         }
+        //특정 필드가 아닌 복합 룰 검증
+        MinTotalValidator.check(item.getPrice(), item.getQuantity(), Item.MIN_TOTAL_PRICE, bindingResult);
 
         //검증에 실패하면 다시 입력 폼으로
         if(bindingResult.hasErrors()){
@@ -88,15 +88,8 @@ public class ValidationItemControllerV3 {
     @PostMapping("/add")
     public String addItem2(@Validated(SaveCheck.class) @ModelAttribute Item item, BindingResult bindingResult, RedirectAttributes redirectAttributes) {
 
-        //@ScriptAssert 를 사용하도 되지만 제약조건이 많아서 오브젝트 오류는 그냥 자바코드로 하자
         //특정 필드가 아닌 복합 룰 검증
-        if(item.getPrice() != null && item.getQuantity() !=null){
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if(resultPrice <10000){
-                //특정 필드의 오류가 아닌 global 오류이기 때문
-                bindingResult.reject("totalPriceMin" , new Object[]{10000, resultPrice},null);
-            }
-        }
+        MinTotalValidator.check(item.getPrice(), item.getQuantity(), Item.MIN_TOTAL_PRICE, bindingResult);
 
         //검증에 실패하면 다시 입력 폼으로
         if(bindingResult.hasErrors()){
@@ -126,13 +119,7 @@ public class ValidationItemControllerV3 {
     public String edit(@PathVariable Long itemId, @Validated @ModelAttribute Item item, BindingResult bindingResult) {
 
         //특정 필드가 아닌 복합 룰 검증
-        if(item.getPrice() != null && item.getQuantity() !=null){
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if(resultPrice <10000){
-                //특정 필드의 오류가 아닌 global 오류이기 때문
-                bindingResult.reject("totalPriceMin" , new Object[]{10000, resultPrice},null);
-            }
-        }
+        MinTotalValidator.check(item.getPrice(), item.getQuantity(), Item.MIN_TOTAL_PRICE, bindingResult);
 
         //검증에 실패하면 다시 입력 폼으로
         if(bindingResult.hasErrors()){
@@ -148,13 +135,7 @@ public class ValidationItemControllerV3 {
     public String editV2(@PathVariable Long itemId, @Validated(UpdateCheck.class) @ModelAttribute Item item, BindingResult bindingResult) {
 
         //특정 필드가 아닌 복합 룰 검증
-        if(item.getPrice() != null && item.getQuantity() !=null){
-            int resultPrice = item.getPrice() * item.getQuantity();
-            if(resultPrice <10000){
-                //특정 필드의 오류가 아닌 global 오류이기 때문
-                bindingResult.reject("totalPriceMin" , new Object[]{10000, resultPrice},null);
-            }
-        }
+        MinTotalValidator.check(item.getPrice(), item.getQuantity(), Item.MIN_TOTAL_PRICE, bindingResult);
 
         //검증에 실패하면 다시 입력 폼으로
         if(bindingResult.hasErrors()){
@@ -1,21 +1,30 @@
 package hello.itemservice.web.validation;
 
 import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemPage;
 import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.domain.item.ItemSort;
 import hello.itemservice.domain.item.SaveCheck;
 import hello.itemservice.domain.item.UpdateCheck;
 import hello.itemservice.web.validation.form.ItemSaveForm;
 import hello.itemservice.web.validation.form.ItemUpdateForm;
+import hello.itemservice.web.validation.rule.RuleEngineValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.util.StringUtils;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.List;
+import javax.servlet.http.HttpServletRequest;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 
 @Slf4j
 @Controller
@@ -24,6 +33,30 @@ import java.util.List;
 public class ValidationItemControllerV4 {
 
     private final ItemRepository itemRepository;
+    private final RuleEngineValidator<ItemSaveForm> itemSaveFormRules;
+    private final RuleEngineValidator<ItemUpdateForm> itemUpdateFormRules;
+    private final ValidationMetrics validationMetrics;
+    private final ItemListFragments itemListFragments;
+    private final ValidationResultCache validationResultCache;
+
+    //폼 객체는 Hibernate Validator 대신 애노테이션을 그대로 옮긴 검증기와 복합 룰을 묶은 규칙 엔진으로 검증한다.
+    //(리플렉션, ConstraintViolation 생성 없음, 규칙은 ItemRuleConfig 참고)
+    //"item" 이름으로 바인딩되는 객체 중 폼 객체일 때만 글로벌 검증기를 교체한다.
+    @InitBinder("item")
+    public void init(WebDataBinder dataBinder) {
+        Object target = dataBinder.getTarget();
+        if (target instanceof ItemSaveForm) {
+            dataBinder.setValidator(validationMetrics.timed("ruleEngine", validationResultCache.cached(itemSaveFormRules)));
+        } else if (target instanceof ItemUpdateForm) {
+            dataBinder.setValidator(validationMetrics.timed("ruleEngine", validationResultCache.cached(itemUpdateFormRules)));
+        }
+    }
+
+    //화면의 라벨, 버튼 문구는 Locale 별로 캐시된 메시지를 쓴다. (템플릿에서 ${labels['page.item']})
+    @ModelAttribute("labels")
+    public Map<String, String> labels(Locale locale) {
+        return itemListFragments.labels(locale);
+    }
 
       //@RequiredArgsConstructor있어서 생략가능
 //    @Autowired //생성자1개일땐 autowired 생략가능
@@ -32,15 +65,37 @@ public class ValidationItemControllerV4 {
 //    }
 
     @GetMapping
-    public String items(Model model) {
-        List<Item> items = itemRepository.findAll();
-        model.addAttribute("items", items);
+    public String items(@RequestParam(defaultValue = "0") int page,
+                        @RequestParam(defaultValue = "20") int size,
+                        @RequestParam(defaultValue = "id") String sort,
+                        @RequestParam(required = false) String name,
+                        Locale locale, HttpServletRequest request, WebRequest webRequest, Model model) {
+        //저장소가 바뀌지 않았으면 모델, 템플릿 처리 없이 304 로 응답한다.
+        long lastModified = Math.max(itemRepository.getLastModified(), itemListFragments.getMessagesReloadedAt());
+        if (webRequest.checkNotModified(etag(itemRepository.getVersion(), locale), lastModified)) {
+            return null;
+        }
+        ItemSort itemSort = ItemSort.parse(sort);
+        //상품명 검색은 상품명 인덱스에서 대소문자 구분 없이 접두어로 찾는다. (상품명 순서)
+        ItemPage itemPage = StringUtils.hasText(name)
+                ? itemRepository.findPageByItemNamePrefix(name.trim(), ItemRepository.offset(page, size), size)
+                : itemRepository.findPage(ItemRepository.offset(page, size), size, itemSort, null);
+        model.addAttribute("items", itemPage.getContent());
+        model.addAttribute("page", itemPage);
+        model.addAttribute("sort", itemSort.toString());
+        model.addAttribute("name", name);
+        //머리글과 상품 행은 캐시된 HTML 을 그대로 출력한다.
+        model.addAttribute("headerHtml", itemListFragments.header(locale));
+        model.addAttribute("rowsHtml", itemListFragments.rows(itemPage.getContent(), request.getContextPath() + "/validation/v4/items"));
         return "validation/v4/items";
     }
 
     @GetMapping("/{itemId}")
-    public String item(@PathVariable long itemId, Model model) {
+    public String item(@PathVariable long itemId, Locale locale, WebRequest webRequest, Model model) {
         Item item = itemRepository.findById(itemId);
+        if (item != null && webRequest.checkNotModified(etag(itemId + "." + item.getVersion(), locale))) {
+            return null;
+        }
         model.addAttribute("item", item);
         return "validation/v4/item";
     }
@@ -48,13 +103,18 @@ public class ValidationItemControllerV4 {
     @GetMapping("/add")
     public String addForm(Model model) {
         model.addAttribute("item", new Item());
+        //폼을 다시 제출(새로고침, 재시도)해도 한 번만 저장되도록 폼마다 키를 발급한다.
+        model.addAttribute("idempotencyKey", UUID.randomUUID().toString());
         //빈 값을 넘긴 이유는 검증에 실패했을때 데이터 넘어간게 다시보이도록 재사용할 수 있다.
         return "validation/v4/addForm";
     }
 
 
     @PostMapping("/add")
-    public String addItem(@Validated @ModelAttribute("item") ItemSaveForm form, BindingResult bindingResult, RedirectAttributes redirectAttributes) {
+    public String addItem(@Validated @ModelAttribute("item") ItemSaveForm form, BindingResult bindingResult,
+                          @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKeyHeader,
+                          @RequestParam(value = "idempotencyKey", required = false) String idempotencyKey,
+                          Model model, RedirectAttributes redirectAttributes) {
         //(item)안넣어주면 itemSaveForm(객체명)으로 자동으로 들어간다.
         //model.addAttribute("itemSaveForm", form) 으로 들어간다는 말이다.
 //        @ModelAttribute("item") 에 item 이름을 넣어준 부분을 주의하자. 이것을 넣지 않으면
@@ -64,18 +124,12 @@ public class ValidationItemControllerV4 {
 
         //addForm에서 입력한 내용들이 @ModelAttribute을 보고 ItemSaveForm에 에 값이 쌓인다
         //이후 model.addAttribute("item", form)해줘야하니까
-        //특정 필드가 아닌 복합 룰 검증
-        if(form.getPrice() != null && form.getQuantity() !=null){
-            int resultPrice = form.getPrice() * form.getQuantity();
-            if(resultPrice <10000){
-                //특정 필드의 오류가 아닌 global 오류이기 때문
-                bindingResult.reject("totalPriceMin" , new Object[]{10000, resultPrice},null);
-            }
-        }
+        //특정 필드가 아닌 복합 룰(totalPriceMin)은 규칙 엔진에서 함께 검증한다.
 
         //검증에 실패하면 다시 입력 폼으로
         if(bindingResult.hasErrors()){
             log.info("error ={}", bindingResult);
+            model.addAttribute("idempotencyKey", idempotencyKey);
             return  "validation/v4/addForm";
 
         }
@@ -88,7 +142,8 @@ public class ValidationItemControllerV4 {
         item.setQuantity(form.getQuantity());
 
 
-        Item savedItem = itemRepository.save(item);
+        //같은 키로 이미 저장했으면 그 상품으로 이동한다.
+        Item savedItem = itemRepository.save(item, idempotencyKeyHeader != null ? idempotencyKeyHeader : idempotencyKey);
         redirectAttributes.addAttribute("itemId", savedItem.getId());
         redirectAttributes.addAttribute("status", true);
         return "redirect:/validation/v4/items/{itemId}";
@@ -105,14 +160,7 @@ public class ValidationItemControllerV4 {
     @PostMapping("/{itemId}/edit")
     public String edit(@PathVariable Long itemId, @Validated @ModelAttribute("item") ItemUpdateForm form, BindingResult bindingResult) {
 
-        //특정 필드가 아닌 복합 룰 검증
-        if(form.getPrice() != null && form.getQuantity() !=null){
-            int resultPrice = form.getPrice() * form.getQuantity();
-            if(resultPrice <10000){
-                //특정 필드의 오류가 아닌 global 오류이기 때문
-                bindingResult.reject("totalPriceMin" , new Object[]{10000, resultPrice},null);
-            }
-        }
+        //특정 필드가 아닌 복합 룰(totalPriceMin)은 규칙 엔진에서 함께 검증한다.
 
         //검증에 실패하면 다시 입력 폼으로
         if(bindingResult.hasErrors()){
@@ -125,9 +173,28 @@ public class ValidationItemControllerV4 {
         itemParam.setPrice(form.getPrice());
         itemParam.setQuantity(form.getQuantity());
 
-        itemRepository.update(itemId, itemParam);
+        if (!itemRepository.update(itemId, itemParam, form.getVersion())) {
+            Item current = itemRepository.findById(itemId);
+            //그 사이에 삭제되었으면 목록으로
+            if (current == null) {
+                return "redirect:/validation/v4/items";
+            }
+            //조회 이후에 다른 사람이 먼저 수정했으면 덮어쓰지 않고, 현재 값과 버전으로 다시 입력 폼을 보여준다.
+            form.setItemName(current.getItemName());
+            form.setPrice(current.getPrice());
+            form.setQuantity(current.getQuantity());
+            form.setVersion(current.getVersion());
+            bindingResult.reject("staleVersion");
+            log.info("error ={}", bindingResult);
+            return "validation/v4/editForm";
+        }
         return "redirect:/validation/v4/items/{itemId}";
     }
 
-}
+    //같은 데이터라도 언어와 메시지 파일에 따라 화면이 다르므로 Locale 과 메시지 세대를 포함한다.
+    private String etag(Object version, Locale locale) {
+        return itemRepository.getEpoch() + "-" + itemListFragments.getMessageGeneration() + "-" + version
+                + "-" + locale.toLanguageTag();
+    }
 
+}
@@ -0,0 +1,81 @@
+package hello.itemservice.web.validation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 검증 시간과 검증 오류를 Micrometer 로 기록한다.
+ * validation.duration{validator, target} : 검증기 실행 시간
+ * validation.errors{controller, code, field} : 요청이 끝났을 때 BindingResult 에 남아있는 오류 수
+ */
+@Component
+@RequiredArgsConstructor
+public class ValidationMetrics {
+
+    private final MeterRegistry registry;
+
+    /**
+     * 실행 시간을 기록하는 검증기로 감싼다. 검증 그룹(hints)도 그대로 전달한다.
+     */
+    public SmartValidator timed(String name, Validator validator) {
+        return new TimedValidator(name, validator);
+    }
+
+    public void countErrors(String controller, Errors errors) {
+        for (ObjectError error : errors.getAllErrors()) {
+            String field = error instanceof FieldError ? ((FieldError) error).getField() : "global";
+            registry.counter("validation.errors",
+                    "controller", controller,
+                    "code", String.valueOf(error.getCode()),
+                    "field", field).increment();
+        }
+    }
+
+    private class TimedValidator implements SmartValidator {
+
+        private final String name;
+        private final Validator delegate;
+        private final Map<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+        TimedValidator(String name, Validator delegate) {
+            this.name = name;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean supports(Class<?> clazz) {
+            return delegate.supports(clazz);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors) {
+            timer(target).record(() -> delegate.validate(target, errors));
+        }
+
+        @Override
+        public void validate(Object target, Errors errors, Object... validationHints) {
+            if (delegate instanceof SmartValidator) {
+                timer(target).record(() -> ((SmartValidator) delegate).validate(target, errors, validationHints));
+            } else {
+                validate(target, errors);
+            }
+        }
+
+        private Timer timer(Object target) {
+            return timers.computeIfAbsent(target.getClass(), type -> Timer.builder("validation.duration")
+                    .tag("validator", name)
+                    .tag("target", type.getSimpleName())
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package hello.itemservice.web.validation;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Validator;
+import org.springframework.web.bind.WebDataBinder;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ValidatorFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 글로벌 Bean Validation 검증기(@ErrorBudget, 검증 결과 캐시 적용)에 실행 시간 측정을 붙이고,
+ * 요청이 끝날 때 바인딩에 사용된 BindingResult 의 오류를 컨트롤러별로 센다.
+ * 컨트롤러에서 직접 추가한 오류(totalPriceMin)와 바인딩 오류(typeMismatch)도 함께 집계된다.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ValidationMetricsConfig implements WebMvcConfigurer {
+
+    private static final String BINDERS_ATTRIBUTE = ValidationMetricsConfig.class.getName() + ".binders";
+
+    private final ValidationMetrics validationMetrics;
+    private final ValidatorFactory validatorFactory;
+    private final ValidationResultCache validationResultCache;
+
+    @Override
+    public Validator getValidator() {
+        return validationMetrics.timed("beanValidation", validationResultCache.cached(new ErrorBudgetValidatorAdapter(validatorFactory)));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+                @SuppressWarnings("unchecked")
+                List<WebDataBinder> binders = (List<WebDataBinder>) request.getAttribute(BINDERS_ATTRIBUTE);
+                if (binders == null || !(handler instanceof HandlerMethod)) {
+                    return;
+                }
+                String controller = controllerPath((HandlerMethod) handler);
+                for (WebDataBinder binder : binders) {
+                    BindingResult bindingResult = binder.getBindingResult();
+                    if (bindingResult.hasErrors()) {
+                        validationMetrics.countErrors(controller, bindingResult);
+                    }
+                }
+            }
+        }).addPathPatterns("/validation/**");
+    }
+
+    private static String controllerPath(HandlerMethod handler) {
+        RequestMapping mapping = AnnotatedElementUtils.findMergedAnnotation(handler.getBeanType(), RequestMapping.class);
+        return mapping != null && mapping.path().length > 0 ? mapping.path()[0] : handler.getBeanType().getSimpleName();
+    }
+
+    //모든 컨트롤러의 WebDataBinder 를 요청 속성에 모아둔다.
+    @ControllerAdvice
+    static class BinderCollector {
+
+        @InitBinder
+        public void collect(WebDataBinder dataBinder, HttpServletRequest request) {
+            if (dataBinder.getTarget() == null) {
+                return; //@PathVariable, @RequestParam 변환용 바인더
+            }
+            @SuppressWarnings("unchecked")
+            List<WebDataBinder> binders = (List<WebDataBinder>) request.getAttribute(BINDERS_ATTRIBUTE);
+            if (binders == null) {
+                binders = new ArrayList<>(2);
+                request.setAttribute(BINDERS_ATTRIBUTE, binders);
+            }
+            binders.add(dataBinder);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 같은 내용의 폼을 다시 제출하면 검증기를 실행하지 않고 이전 검증 결과(오류 목록)를 그대로 다시 넣는다.
+ * 키는 검증기, 폼 타입, objectName, 검증 그룹, 오류 한도(@ErrorBudget), 폼의 값이다.
+ * 폼의 값은 타입마다 정해둔 getter 로 읽는다. (VALUES, 여기에 없는 타입은 캐시하지 않는다)
+ *
+ * 바인딩 오류(typeMismatch)가 있으면 캐시하지 않는다.
+ * 저장소 상태에 따라 결과가 바뀌는 검증기(상품명 중복 확인)는 상태 버전을 키에 포함한다.
+ * validation.result-cache.max-size 개까지 보관한다. (0 이면 사용하지 않는다)
+ * 잠금 없이 읽고 쓰며, 넘치면 한 스레드가 마지막 사용 시각이 오래된 것부터 3/4 까지 지운다. (근사 LRU)
+ */
+@Component
+public class ValidationResultCache {
+
+    //타입별 키 값, 프로퍼티가 바뀌면 여기도 함께 바꿔야 한다.
+    private static final Map<Class<?>, Function<Object, List<Object>>> VALUES = Map.of(
+            ItemSaveForm.class, target -> {
+                ItemSaveForm form = (ItemSaveForm) target;
+                return Arrays.asList(form.getItemName(), form.getPrice(), form.getQuantity());
+            },
+            ItemUpdateForm.class, target -> {
+                ItemUpdateForm form = (ItemUpdateForm) target;
+                return Arrays.asList(form.getId(), form.getItemName(), form.getPrice(), form.getQuantity(), form.getVersion());
+            },
+            Item.class, target -> {
+                Item item = (Item) target;
+                return Arrays.asList(item.getId(), item.getItemName(), item.getPrice(), item.getQuantity(), item.getVersion());
+            });
+
+    private final int maxSize;
+    private final Map<Key, Entry> cache = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ValidationResultCache(@Value("${validation.result-cache.max-size:1000}") int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public SmartValidator cached(Validator validator) {
+        return cached(validator, () -> 0);
+    }
+
+    /**
+     * @param stateVersion 검증 결과에 영향을 주는 외부 상태의 버전, 바뀌면 이전 결과를 사용하지 않는다.
+     */
+    public SmartValidator cached(Validator validator, LongSupplier stateVersion) {
+        return new CachedValidator(validator, stateVersion);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    int size() {
+        return cache.size();
+    }
+
+    private List<ObjectError> get(Key key) {
+        Entry entry = cache.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastAccess = System.nanoTime();
+        return entry.errors;
+    }
+
+    private void put(Key key, List<ObjectError> errors) {
+        cache.put(key, new Entry(errors));
+        if (cache.size() > maxSize) {
+            evict();
+        }
+    }
+
+    //다른 스레드가 지우는 중이면 기다리지 않는다.
+    private void evict() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            List<Map.Entry<Key, Entry>> entries = new ArrayList<>(cache.entrySet());
+            int remove = entries.size() - (maxSize - maxSize / 4);
+            if (remove <= 0) {
+                return;
+            }
+            entries.sort((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess));
+            for (int i = 0; i < remove; i++) {
+                cache.remove(entries.get(i).getKey(), entries.get(i).getValue());
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private class CachedValidator implements SmartValidator {
+
+        private final Validator delegate;
+        private final LongSupplier stateVersion;
+
+        CachedValidator(Validator delegate, LongSupplier stateVersion) {
+            this.delegate = delegate;
+            this.stateVersion = stateVersion;
+        }
+
+        @Override
+        public boolean supports(Class<?> clazz) {
+            return delegate.supports(clazz);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors) {
+            validate(target, errors, new Object[0]);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors, Object... validationHints) {
+            Key key = maxSize > 0 && errors instanceof BindingResult && !errors.hasErrors()
+                    ? key(target, errors.getObjectName(), validationHints) : null;
+            if (key == null) {
+                invoke(target, errors, validationHints);
+                return;
+            }
+            List<ObjectError> cached = get(key);
+            if (cached != null) {
+                hits.increment();
+                for (ObjectError error : cached) {
+                    ((BindingResult) errors).addError(error);
+                }
+                return;
+            }
+            misses.increment();
+            invoke(target, errors, validationHints);
+            put(key, errors.hasErrors() ? List.copyOf(errors.getAllErrors()) : Collections.emptyList());
+        }
+
+        private void invoke(Object target, Errors errors, Object... validationHints) {
+            if (delegate instanceof SmartValidator) {
+                ((SmartValidator) delegate).validate(target, errors, validationHints);
+            } else {
+                delegate.validate(target, errors);
+            }
+        }
+
+        private Key key(Object target, String objectName, Object... validationHints) {
+            Function<Object, List<Object>> values = VALUES.get(target.getClass());
+            if (values == null) {
+                return null;
+            }
+            return new Key(delegate, target.getClass(), objectName, Arrays.asList(validationHints),
+                    ErrorBudgets.resolve(target), stateVersion.getAsLong(), values.apply(target));
+        }
+    }
+
+    private static final class Entry {
+        private final List<ObjectError> errors;
+        private volatile long lastAccess = System.nanoTime();
+
+        Entry(List<ObjectError> errors) {
+            this.errors = errors;
+        }
+    }
+
+    private static final class Key {
+        private final Validator validator;
+        private final Class<?> type;
+        private final String objectName;
+        private final List<Object> groups;
+        private final int budget;
+        private final long stateVersion;
+        private final List<Object> values;
+        private final int hash;
+
+        Key(Validator validator, Class<?> type, String objectName, List<Object> groups,
+            int budget, long stateVersion, List<Object> values) {
+            this.validator = validator;
+            this.type = type;
+            this.objectName = objectName;
+            this.groups = groups;
+            this.budget = budget;
+            this.stateVersion = stateVersion;
+            this.values = values;
+            this.hash = Objects.hash(System.identityHashCode(validator), type, objectName, groups, budget, stateVersion, values);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return validator == key.validator && type == key.type && budget == key.budget
+                    && stateVersion == key.stateVersion && hash == key.hash
+                    && objectName.equals(key.objectName) && groups.equals(key.groups) && values.equals(key.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.message.MessageBundles;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.context.MessageSourceProperties;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.validation.Valid;
+import javax.validation.Validator;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 첫 요청이 검증 준비 비용을 내지 않도록 서버가 요청을 받기 전에 미리 실행한다.
+ * 1. 컨트롤러가 @Validated, @Valid 로 받는 폼 타입의 제약조건 메타데이터를 공용 Validator 에 만들어 둔다.
+ * 2. spring.messages.basename 의 모든 메시지를 지원하는 로케일(MessageBundles)마다 한 번씩 조회해서 캐시를 채운다.
+ *
+ * validation.warmup.enabled=false 로 끌 수 있다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "validation.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class ValidationWarmup implements SmartInitializingSingleton {
+
+    //{0}, {1} 이 있는 메시지도 MessageFormat 까지 만들어지도록 인자를 넘긴다.
+    private static final Object[] WARMUP_ARGS = {0, 0, 0};
+
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final Validator validator;
+    private final MessageSource messageSource;
+    private final MessageSourceProperties messageSourceProperties;
+
+    private List<Class<?>> formTypes = Collections.emptyList();
+    private List<Locale> locales = Collections.emptyList();
+
+    public ValidationWarmup(@Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                            Validator validator, MessageSource messageSource,
+                            MessageSourceProperties messageSourceProperties) {
+        this.handlerMapping = handlerMapping;
+        this.validator = validator;
+        this.messageSource = messageSource;
+        this.messageSourceProperties = messageSourceProperties;
+    }
+
+    //모든 빈이 만들어진 뒤, 웹 서버가 시작되기 전에 호출된다.
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        formTypes = warmValidator();
+        String[] basenames = StringUtils.commaDelimitedListToStringArray(
+                StringUtils.trimAllWhitespace(messageSourceProperties.getBasename()));
+        locales = List.copyOf(MessageBundles.supportedLocales(basenames));
+        int messages = warmMessages(basenames, locales);
+        log.info("validation warmup: formTypes={}, locales={}, messages={}, {}ms",
+                formTypes.size(), locales, messages, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public List<Class<?>> getFormTypes() {
+        return formTypes;
+    }
+
+    public List<Locale> getLocales() {
+        return locales;
+    }
+
+    private List<Class<?>> warmValidator() {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+            for (MethodParameter parameter : handlerMethod.getMethodParameters()) {
+                if ((parameter.hasParameterAnnotation(Validated.class) || parameter.hasParameterAnnotation(Valid.class))
+                        && !BeanUtils.isSimpleProperty(parameter.getParameterType())) {
+                    types.add(parameter.getParameterType());
+                }
+            }
+        }
+        for (Class<?> type : types) {
+            validator.getConstraintsForClass(type);
+            //빈 객체를 한 번 검증해서 ConstraintValidator 생성과 메시지 보간까지 끝내둔다.
+            if (ClassUtils.hasConstructor(type)) {
+                validator.validate(BeanUtils.instantiateClass(type));
+            }
+        }
+        return List.copyOf(types);
+    }
+
+    private int warmMessages(String[] basenames, List<Locale> locales) {
+        Set<String> codes = MessageBundles.codes(basenames);
+        for (Locale locale : locales) {
+            for (String code : codes) {
+                messageSource.getMessage(new DefaultMessageSourceResolvable(new String[]{code}, WARMUP_ARGS, code), locale);
+            }
+        }
+        return codes.size() * locales.size();
+    }
+}
@@ -0,0 +1,47 @@
+package hello.itemservice.web.validation.form;
+
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.validation.Errors;
+
+/**
+ * Bean Validation 애노테이션과 같은 결과를 BindingResult 에 남기는 검증 로직
+ * SpringValidatorAdapter 와 같은 오류 코드(NotBlank, Range...)와 arguments 순서를 사용한다.
+ * arguments: {0}=필드명, 이후는 애노테이션 속성을 이름순으로 정렬 (Range: {1}=max, {2}=min)
+ */
+final class FormConstraints {
+
+    private FormConstraints() {
+    }
+
+    static void notBlank(Errors errors, String field, String value) {
+        if (value == null || value.trim().isEmpty()) {
+            errors.rejectValue(field, "NotBlank", new Object[]{fieldName(errors, field)}, "must not be blank");
+        }
+    }
+
+    static boolean notNull(Errors errors, String field, Object value) {
+        if (value == null) {
+            errors.rejectValue(field, "NotNull", new Object[]{fieldName(errors, field)}, "must not be null");
+            return false;
+        }
+        return true;
+    }
+
+    static void range(Errors errors, String field, Integer value, long min, long max) {
+        if (value != null && (value < min || value > max)) {
+            errors.rejectValue(field, "Range", new Object[]{fieldName(errors, field), max, min},
+                    "must be between " + min + " and " + max);
+        }
+    }
+
+    static void max(Errors errors, String field, Integer value, long max) {
+        if (value != null && value > max) {
+            errors.rejectValue(field, "Max", new Object[]{fieldName(errors, field), max},
+                    "must be less than or equal to " + max);
+        }
+    }
+
+    private static DefaultMessageSourceResolvable fieldName(Errors errors, String field) {
+        return new DefaultMessageSourceResolvable(new String[]{errors.getObjectName() + "." + field, field}, field);
+    }
+}
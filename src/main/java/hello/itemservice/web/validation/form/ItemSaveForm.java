@@ -1,5 +1,7 @@
 package hello.itemservice.web.validation.form;
 
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.validation.MinTotal;
 import lombok.Data;
 import org.hibernate.validator.constraints.Range;
 
@@ -8,6 +10,7 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
 @Data
+@MinTotal(price = "price", quantity = "quantity", min = Item.MIN_TOTAL_PRICE)
 public class ItemSaveForm {
 
     @NotBlank
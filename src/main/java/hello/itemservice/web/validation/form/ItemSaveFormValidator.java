@@ -0,0 +1,34 @@
+package hello.itemservice.web.validation.form;
+
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+/**
+ * ItemSaveForm 의 애노테이션(@NotBlank, @NotNull, @Range, @Max)을 리플렉션 없이 그대로 옮긴 검증기
+ * ItemSaveForm 의 애노테이션을 바꾸면 이 클래스도 함께 바꿔야 한다. (FormValidatorParityTest 로 확인)
+ */
+@Component
+public class ItemSaveFormValidator implements Validator {
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return ItemSaveForm.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        ItemSaveForm form = (ItemSaveForm) target;
+
+        //@NotBlank
+        FormConstraints.notBlank(errors, "itemName", form.getItemName());
+
+        //@NotNull @Range(min = 1000, max = 1000000)
+        FormConstraints.notNull(errors, "price", form.getPrice());
+        FormConstraints.range(errors, "price", form.getPrice(), 1000, 1000000);
+
+        //@NotNull @Max(9999)
+        FormConstraints.notNull(errors, "quantity", form.getQuantity());
+        FormConstraints.max(errors, "quantity", form.getQuantity(), 9999);
+    }
+}
@@ -1,5 +1,7 @@
 package hello.itemservice.web.validation.form;
 
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.validation.MinTotal;
 import lombok.Data;
 import org.hibernate.validator.constraints.Range;
 
@@ -8,6 +10,7 @@ import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
 
 @Data
+@MinTotal(price = "price", quantity = "quantity", min = Item.MIN_TOTAL_PRICE)
 public class ItemUpdateForm {
 
     @NotNull
@@ -23,4 +26,8 @@ public class ItemUpdateForm {
     //수정에서는 수량은 자유롭게 변경할 수 있다.
     private Integer quantity;
 
+    //조회했을 때의 버전, 그 사이에 다른 사람이 수정했으면 저장하지 않는다.
+    @NotNull
+    private Long version;
+
 }
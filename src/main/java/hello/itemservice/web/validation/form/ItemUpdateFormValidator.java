@@ -0,0 +1,38 @@
+package hello.itemservice.web.validation.form;
+
+import org.springframework.stereotype.Component;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+/**
+ * ItemUpdateForm 의 애노테이션(@NotNull, @NotBlank, @Range)을 리플렉션 없이 그대로 옮긴 검증기
+ * ItemUpdateForm 의 애노테이션을 바꾸면 이 클래스도 함께 바꿔야 한다. (FormValidatorParityTest 로 확인)
+ */
+@Component
+public class ItemUpdateFormValidator implements Validator {
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return ItemUpdateForm.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        ItemUpdateForm form = (ItemUpdateForm) target;
+
+        //@NotNull
+        FormConstraints.notNull(errors, "id", form.getId());
+
+        //@NotBlank
+        FormConstraints.notBlank(errors, "itemName", form.getItemName());
+
+        //@NotNull @Range(min = 1000, max = 1000000)
+        FormConstraints.notNull(errors, "price", form.getPrice());
+        FormConstraints.range(errors, "price", form.getPrice(), 1000, 1000000);
+
+        //수정에서는 수량은 자유롭게 변경할 수 있다.
+
+        //@NotNull
+        FormConstraints.notNull(errors, "version", form.getVersion());
+    }
+}
@@ -0,0 +1,110 @@
+package hello.itemservice.web.validation.rule;
+
+import org.springframework.validation.AbstractBindingResult;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * 여러 검증 규칙을 하나의 Validator 로 묶는다.
+ * - 서로 의존하지 않는 async 규칙은 executor 에서 동시에 실행한다.
+ * - 의존하는 규칙이 실패하면 뒤의 규칙은 실행하지 않는다.
+ * - 규칙마다 별도의 BindingResult 에 오류를 모은 뒤, 등록한 순서대로 errors 에 합친다.
+ *   실행 순서와 관계없이 항상 같은 순서의 오류가 나온다.
+ */
+public class RuleEngineValidator<T> implements Validator {
+
+    private final Class<T> type;
+    private final List<ValidationRule<T>> rules;
+    private final Executor executor;
+
+    public RuleEngineValidator(Class<T> type, List<ValidationRule<T>> rules, Executor executor) {
+        Map<String, ValidationRule<T>> declared = new HashMap<>();
+        for (ValidationRule<T> rule : rules) {
+            for (String dependency : rule.getDependsOn()) {
+                if (!declared.containsKey(dependency)) {
+                    throw new IllegalArgumentException("규칙 " + rule.getName() + " 보다 먼저 등록되어야 합니다: " + dependency);
+                }
+            }
+            declared.put(rule.getName(), rule);
+        }
+        this.type = type;
+        this.rules = new ArrayList<>(rules);
+        this.executor = executor;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return type.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        T typedTarget = type.cast(target);
+
+        //결과가 null 이면 의존하는 규칙이 실패해서 건너뛴 것
+        Map<String, CompletableFuture<BindingResult>> results = new HashMap<>();
+        List<CompletableFuture<BindingResult>> ordered = new ArrayList<>(rules.size());
+        for (ValidationRule<T> rule : rules) {
+            List<CompletableFuture<BindingResult>> dependencies = new ArrayList<>(rule.getDependsOn().size());
+            for (String dependency : rule.getDependsOn()) {
+                dependencies.add(results.get(dependency));
+            }
+
+            Function<Void, BindingResult> run = ignored -> {
+                for (CompletableFuture<BindingResult> dependency : dependencies) {
+                    BindingResult result = dependency.join();
+                    if (result == null || result.hasErrors()) {
+                        return null;
+                    }
+                }
+                BindingResult result = newResult(target, errors);
+                rule.validate(typedTarget, result);
+                return result;
+            };
+
+            CompletableFuture<Void> ready = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[0]));
+            CompletableFuture<BindingResult> future = rule.isAsync()
+                    ? ready.thenApplyAsync(run, executor)
+                    : ready.thenApply(run);
+            results.put(rule.getName(), future);
+            ordered.add(future);
+        }
+
+        for (CompletableFuture<BindingResult> future : ordered) {
+            BindingResult result = join(future);
+            if (result != null && result.hasErrors()) {
+                errors.addAllErrors(result);
+            }
+        }
+    }
+
+    private BindingResult newResult(Object target, Errors errors) {
+        BeanPropertyBindingResult result = new BeanPropertyBindingResult(target, errors.getObjectName());
+        if (errors instanceof AbstractBindingResult) {
+            result.setMessageCodesResolver(((AbstractBindingResult) errors).getMessageCodesResolver());
+        }
+        return result;
+    }
+
+    private static BindingResult join(CompletableFuture<BindingResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package hello.itemservice.web.validation.rule;
+
+import org.springframework.validation.Errors;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * RuleEngineValidator 가 실행하는 검증 규칙 하나
+ * async 규칙은 검증 전용 스레드 풀에서 다른 규칙과 동시에 실행된다. (이름 중복 확인, 외부 조회처럼 느린 규칙)
+ * dependsOn 에 적은 규칙이 하나라도 실패하면 이 규칙은 실행하지 않는다.
+ */
+public class ValidationRule<T> {
+
+    private final String name;
+    private final boolean async;
+    private final List<String> dependsOn;
+    private final BiConsumer<T, Errors> check;
+
+    private ValidationRule(String name, boolean async, List<String> dependsOn, BiConsumer<T, Errors> check) {
+        this.name = name;
+        this.async = async;
+        this.dependsOn = dependsOn;
+        this.check = check;
+    }
+
+    /**
+     * 요청 스레드에서 바로 실행하는 가벼운 규칙
+     */
+    public static <T> ValidationRule<T> inline(String name, BiConsumer<T, Errors> check, String... dependsOn) {
+        return new ValidationRule<>(name, false, Arrays.asList(dependsOn), check);
+    }
+
+    public static <T> ValidationRule<T> async(String name, BiConsumer<T, Errors> check, String... dependsOn) {
+        return new ValidationRule<>(name, true, Arrays.asList(dependsOn), check);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public List<String> getDependsOn() {
+        return dependsOn;
+    }
+
+    void validate(T target, Errors errors) {
+        check.accept(target, errors);
+    }
+}
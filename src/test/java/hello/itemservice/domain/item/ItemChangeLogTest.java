@@ -0,0 +1,101 @@
+package hello.itemservice.domain.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemChangeLogTest {
+
+    @Test
+    void repositoryEvents() {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        ItemChangeLog changeLog = itemRepository.getChangeLog();
+
+        //when
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.update(item.getId(), new Item("itemB", 20000, 20));
+        itemRepository.deleteByIds(List.of(item.getId()));
+        itemRepository.clearStore();
+
+        //then
+        List<ItemChangeEvent> events = changeLog.read(1, 10);
+        assertThat(events).extracting(ItemChangeEvent::getType).containsExactly(
+                ItemChangeEvent.Type.CREATED, ItemChangeEvent.Type.UPDATED,
+                ItemChangeEvent.Type.DELETED, ItemChangeEvent.Type.CLEARED);
+        assertThat(events).extracting(ItemChangeEvent::getSequence).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(events.get(1).getBefore().getItemName()).isEqualTo("itemA");
+        assertThat(events.get(1).getAfter().getItemName()).isEqualTo("itemB");
+        assertThat(events.get(2).getBefore().getVersion()).isEqualTo(2L);
+        assertThat(events.get(2).getAfter()).isNull();
+
+        //이어서 읽기
+        assertThat(changeLog.read(4, 10)).hasSize(1);
+        assertThat(changeLog.read(5, 10)).isEmpty();
+    }
+
+    @Test
+    void rejectedBulkPublishesNothing() {
+        //given
+        ItemRepository itemRepository = new ItemRepository();
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        Item stale = new Item("itemA", 20000, 10);
+        stale.setVersion(5L);
+
+        //when
+        itemRepository.updateAll(Map.of(item.getId(), stale));
+
+        //then
+        assertThat(itemRepository.getChangeLog().getSequence()).isEqualTo(1);
+    }
+
+    @Test
+    void overwriteOldest() {
+        //given
+        ItemChangeLog changeLog = new ItemChangeLog(4);
+
+        //when 용량보다 많이 기록
+        for (int i = 0; i < 6; i++) {
+            changeLog.publish(ItemChangeEvent.Type.CREATED, null, new Item("item" + i, 1000, 10));
+        }
+
+        //then
+        assertThat(changeLog.getOldestSequence()).isEqualTo(3);
+        assertThat(changeLog.read(1, 10)).isEmpty();
+        assertThat(changeLog.read(3, 10)).extracting(ItemChangeEvent::getSequence).containsExactly(3L, 4L, 5L, 6L);
+        assertThatThrownBy(() -> new ItemChangeLog(3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void concurrentPublish() throws InterruptedException {
+        //given
+        ItemChangeLog changeLog = new ItemChangeLog(1 << 16);
+        int threads = 4;
+        int perThread = 10_000;
+
+        //when
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    changeLog.publish(ItemChangeEvent.Type.CREATED, null, null);
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        //then 빠진 번호 없이 순서대로 읽힌다.
+        List<ItemChangeEvent> events = changeLog.read(1, threads * perThread);
+        assertThat(events).hasSize(threads * perThread);
+        for (int i = 0; i < events.size(); i++) {
+            assertThat(events.get(i).getSequence()).isEqualTo(i + 1);
+        }
+    }
+}
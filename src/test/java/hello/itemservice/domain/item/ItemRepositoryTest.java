@@ -3,7 +3,15 @@ package hello.itemservice.domain.item;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -65,4 +73,232 @@ class ItemRepositoryTest {
         assertThat(findItem.getPrice()).isEqualTo(updateParam.getPrice());
         assertThat(findItem.getQuantity()).isEqualTo(updateParam.getQuantity());
     }
+
+    @Test
+    void concurrentSave() throws InterruptedException {
+        int perThread = 10000;
+
+        for (int threads = 1; threads <= 8; threads *= 2) {
+            itemRepository.clearStore();
+
+            //given
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+
+            //when
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        itemRepository.save(new Item("item", 10000, 10));
+                    }
+                    return null;
+                });
+            }
+            long startNanos = System.nanoTime();
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+            long elapsedNanos = System.nanoTime() - startNanos;
+
+            //then 유실된 저장이나 중복 id가 없어야 한다.
+            List<Item> result = itemRepository.findAll();
+            Set<Long> ids = new HashSet<>();
+            for (Item item : result) {
+                ids.add(item.getId());
+            }
+            assertThat(result.size()).isEqualTo(threads * perThread);
+            assertThat(ids.size()).isEqualTo(threads * perThread);
+
+            System.out.println("threads = " + threads + ", ops/s = " + (threads * perThread * 1_000_000_000L / elapsedNanos));
+        }
+    }
+
+    @Test
+    void findPage() {
+        //given
+        for (int i = 1; i <= 25; i++) {
+            itemRepository.save(new Item("item" + i, 1000 * i, 100 - i));
+        }
+
+        //when
+        ItemPage first = itemRepository.findPage(0, 10, ItemSort.parse("price,desc"), null);
+        ItemPage last = itemRepository.findPage(20, 10, ItemSort.parse("price,desc"), null);
+        ItemPage filtered = itemRepository.findPage(0, 10, ItemSort.parse("quantity"), item -> item.getPrice() <= 3000);
+
+        //then
+        assertThat(first.getContent()).extracting(Item::getPrice).startsWith(25000, 24000);
+        assertThat(first.isLast()).isFalse();
+        assertThat(last.getContent()).hasSize(5);
+        assertThat(last.isLast()).isTrue();
+        assertThat(filtered.getContent()).extracting(Item::getQuantity).containsExactly(97, 98, 99);
+    }
+
+    @Test
+    void offset() {
+        //페이지 크기는 조회할 때와 같이 MAX_PAGE_SIZE 로 맞춰서 곱한다.
+        assertThat(ItemRepository.offset(2, 500)).isEqualTo(2 * ItemRepository.MAX_PAGE_SIZE);
+        assertThat(ItemRepository.offset(2, 0)).isEqualTo(2);
+        assertThat(ItemRepository.offset(-1, 20)).isZero();
+        assertThat(ItemRepository.offset(Integer.MAX_VALUE, 20)).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void findPageAfterUpdate() {
+        //given
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 20000, 20));
+
+        //when
+        itemRepository.update(itemA.getId(), new Item("itemA", 30000, 10));
+
+        //then
+        ItemPage page = itemRepository.findPage(0, 10, ItemSort.parse("price"), null);
+        assertThat(page.getContent()).extracting(Item::getItemName).containsExactly("itemB", "itemA");
+    }
+
+    @Test
+    void updateWithStaleVersion() throws InterruptedException {
+        //given
+        Item item = itemRepository.save(new Item("item1", 10000, 10));
+        Long version = item.getVersion();
+
+        //when 같은 버전을 보고 여러 명이 동시에 수정
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger succeeded = new AtomicInteger();
+        for (int i = 0; i < 8; i++) {
+            int price = 20000 + i;
+            executor.submit(() -> {
+                if (itemRepository.update(item.getId(), new Item("item1", price, 10), version)) {
+                    succeeded.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        //then 한 명만 성공한다.
+        assertThat(succeeded.get()).isEqualTo(1);
+        assertThat(itemRepository.findById(item.getId()).getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    void findByItemName() {
+        //given
+        Item itemA = itemRepository.save(new Item("Apple", 10000, 10));
+        Item itemB = itemRepository.save(new Item("apricot", 20000, 20));
+        itemRepository.save(new Item("banana", 30000, 30));
+
+        //then
+        assertThat(itemRepository.findByItemName("Apple")).containsExactly(itemA);
+        assertThat(itemRepository.findByItemName("apple")).isEmpty();
+        assertThat(itemRepository.findPageByItemNamePrefix("AP", 0, 10).getContent())
+                .extracting(Item::getItemName).containsExactly("Apple", "apricot");
+
+        //수정하면 이전 이름으로는 찾을 수 없다.
+        itemRepository.update(itemB.getId(), new Item("cherry", 20000, 20));
+        assertThat(itemRepository.findByItemName("apricot")).isEmpty();
+        assertThat(itemRepository.findPageByItemNamePrefix("ch", 0, 10).getContent())
+                .extracting(Item::getId).containsExactly(itemB.getId());
+
+        itemRepository.clearStore();
+        assertThat(itemRepository.findByItemName("Apple")).isEmpty();
+        assertThat(itemRepository.findPageByItemNamePrefix("a", 0, 10).getContent()).isEmpty();
+    }
+
+    @Test
+    void rangeAndStats() {
+        //given
+        Item item1 = itemRepository.save(new Item("item1", 1000, 10));
+        Item item2 = itemRepository.save(new Item("item2", 5000, 20));
+        itemRepository.save(new Item("item3", 9000, 30));
+        itemRepository.save(new Item("item4", null, 40));
+
+        //then
+        assertThat(itemRepository.findPageByPriceBetween(1000, 5000, 0, 10).getContent())
+                .containsExactly(item1, item2);
+        assertThat(itemRepository.findPageByPriceBetween(9000, 1000, 0, 10).getContent()).isEmpty();
+        assertThat(itemRepository.findPageByQuantityBetween(25, 100, 0, 10).getContent())
+                .extracting(Item::getItemName).containsExactly("item3", "item4");
+
+        ItemStats stats = itemRepository.getStats();
+        assertThat(stats.getCount()).isEqualTo(4);
+        assertThat(stats.getTotalValue()).isEqualTo(10000 + 100000 + 270000);
+        assertThat(stats.getMinValue()).isEqualTo(10000);
+        assertThat(stats.getMaxValue()).isEqualTo(270000);
+
+        //수정하면 집계도 바뀐다.
+        itemRepository.update(item1.getId(), new Item("item1", 100000, 10));
+        stats = itemRepository.getStats();
+        assertThat(stats.getTotalValue()).isEqualTo(1000000 + 100000 + 270000);
+        assertThat(stats.getMinValue()).isEqualTo(100000);
+        assertThat(stats.getMaxValue()).isEqualTo(1000000);
+
+        itemRepository.clearStore();
+        stats = itemRepository.getStats();
+        assertThat(stats.getTotalValue()).isZero();
+        assertThat(stats.getMaxValue()).isNull();
+    }
+
+    @Test
+    void saveWithIdempotencyKey() {
+        //given
+        Item first = itemRepository.save(new Item("itemA", 10000, 10), "key-1");
+
+        //when 같은 키로 다시 저장
+        Item second = itemRepository.save(new Item("itemA", 10000, 10), "key-1");
+        Item other = itemRepository.save(new Item("itemA", 10000, 10), "key-2");
+
+        //then
+        assertThat(second.getId()).isEqualTo(first.getId());
+        assertThat(other.getId()).isNotEqualTo(first.getId());
+        assertThat(itemRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void applyAll() {
+        //given
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+        Item itemC = itemRepository.save(new Item("itemC", 30000, 30));
+        Item stale = new Item("itemB", 1000, 10);
+        stale.setVersion(2L);
+
+        //when 하나라도 version 이 다르면 아무것도 바꾸지 않는다.
+        ItemBulkResult rejected = itemRepository.applyAll(
+                Map.of(itemA.getId(), new Item("itemA2", 1000, 10), itemB.getId(), stale), List.of(itemC.getId()));
+
+        //then
+        assertThat(rejected.isApplied()).isFalse();
+        assertThat(rejected.getConflicts()).containsExactly(itemB.getId());
+        assertThat(rejected.getUpdated()).isEmpty();
+        assertThat(itemRepository.count()).isEqualTo(3);
+        assertThat(itemRepository.findById(itemA.getId()).getItemName()).isEqualTo("itemA");
+
+        //when
+        stale.setVersion(1L);
+        ItemBulkResult result = itemRepository.applyAll(Map.of(itemB.getId(), stale), List.of(itemC.getId(), 999L));
+
+        //then 인덱스와 집계에도 반영된다.
+        assertThat(result.getUpdated()).containsExactly(itemB.getId());
+        assertThat(result.getDeleted()).containsExactly(itemC.getId());
+        assertThat(itemRepository.findById(itemB.getId()).getVersion()).isEqualTo(2L);
+        assertThat(itemRepository.findById(itemC.getId())).isNull();
+        assertThat(itemRepository.findByItemName("itemC")).isEmpty();
+        assertThat(itemRepository.getStats().getTotalValue()).isEqualTo(100000 + 10000);
+    }
+
+    @Test
+    void deleteWhere() {
+        //given
+        itemRepository.save(new Item("itemA", 1000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+
+        //when
+        ItemBulkResult result = itemRepository.deleteWhere(item -> item.getPrice() < 10000);
+
+        //then
+        assertThat(result.getDeleted()).hasSize(1);
+        assertThat(itemRepository.findAll()).containsExactly(itemB);
+    }
 }
@@ -0,0 +1,121 @@
+package hello.itemservice.domain.item;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemSnapshotTest {
+
+    ItemRepository itemRepository = new ItemRepository();
+
+    @Test
+    void exportAndImport() throws Exception {
+        //given
+        itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("상품B", -1, null));
+        Item itemC = itemRepository.save(new Item(null, Integer.MAX_VALUE, Integer.MIN_VALUE));
+        itemRepository.update(itemC.getId(), new Item("x".repeat(100_000), 1, 1));
+
+        for (boolean compress : new boolean[]{false, true}) {
+            //when
+            byte[] snapshot = export(itemRepository, compress);
+            ItemRepository target = new ItemRepository();
+            target.save(new Item("old", 1000, 1));
+            long count = target.importSnapshot(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+
+            //then
+            assertThat(count).isEqualTo(3);
+            assertThat(target.findPage(0, 10, ItemSort.DEFAULT, null).getContent())
+                    .isEqualTo(itemRepository.findPage(0, 10, ItemSort.DEFAULT, null).getContent());
+            assertThat(target.findByItemName("old")).isEmpty();
+            //이어서 저장하면 id 가 겹치지 않는다.
+            assertThat(target.save(new Item("itemD", 1000, 1)).getId()).isEqualTo(4L);
+        }
+    }
+
+    @Test
+    void importSameId() throws Exception {
+        //given 가져올 상품과 id, version 이 같지만 내용이 다른 상품
+        itemRepository.save(new Item("itemA", 10000, 10));
+        byte[] snapshot = export(itemRepository, false);
+        ItemRepository target = new ItemRepository();
+        Item old = target.save(new Item("old", 1000, 1));
+        long epoch = target.getEpoch();
+
+        //when
+        target.importSnapshot(Channels.newChannel(new ByteArrayInputStream(snapshot)));
+
+        //then 세대가 바뀌므로 (epoch, id, version) 으로 만든 ETag, 캐시 키가 겹치지 않는다.
+        Item imported = target.findById(old.getId());
+        assertThat(imported.getVersion()).isEqualTo(old.getVersion());
+        assertThat(imported.getItemName()).isEqualTo("itemA");
+        assertThat(target.getEpoch()).isGreaterThan(epoch);
+    }
+
+    @Test
+    void pointInTime() {
+        //given
+        Item item1 = itemRepository.save(new Item("item1", 1000, 1));
+        Item item2 = itemRepository.save(new Item("item2", 2000, 2));
+
+        //when 첫 상품을 내보낸 뒤에 아직 내보내지 않은 상품을 수정하고, 새 상품을 저장
+        List<Item> exported = new ArrayList<>();
+        itemRepository.snapshot(item -> {
+            if (exported.isEmpty()) {
+                itemRepository.update(item2.getId(), new Item("item2", 9000, 9));
+                itemRepository.save(new Item("item3", 3000, 3));
+            }
+            exported.add(item);
+        });
+
+        //then 시작 시점의 상품만 나온다.
+        assertThat(exported).containsExactly(item1, item2);
+        assertThat(itemRepository.findById(item2.getId()).getPrice()).isEqualTo(9000);
+    }
+
+    @Test
+    void corrupted() throws Exception {
+        itemRepository.save(new Item("itemA", 10000, 10));
+        byte[] snapshot = export(itemRepository, false);
+        byte[] truncated = Arrays.copyOf(snapshot, snapshot.length - 3);
+
+        ItemRepository target = new ItemRepository();
+        target.save(new Item("old", 1000, 1));
+
+        assertThatThrownBy(() -> target.importSnapshot(Channels.newChannel(new ByteArrayInputStream(truncated))))
+                .isInstanceOf(IllegalArgumentException.class);
+        //손상된 스냅샷이면 기존 상품은 그대로다.
+        assertThat(target.findByItemName("old")).hasSize(1);
+    }
+
+    @Test
+    void recordTooLong() throws Exception {
+        //given 헤더 뒤에 2GB 에 가까운 기록 길이만 있는 스냅샷
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(ItemSnapshotWriter.MAGIC);
+        out.write(new byte[]{ItemSnapshotWriter.FORMAT_VERSION, 0});
+        out.write(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07});
+
+        ItemRepository target = new ItemRepository();
+        target.save(new Item("old", 1000, 1));
+
+        //when then 기록 길이만큼 할당하지 않고 바로 실패한다.
+        assertThatThrownBy(() -> target.importSnapshot(Channels.newChannel(new ByteArrayInputStream(out.toByteArray()))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("기록 길이");
+        assertThat(target.findByItemName("old")).hasSize(1);
+    }
+
+    private byte[] export(ItemRepository repository, boolean compress) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        repository.exportSnapshot(Channels.newChannel(out), compress);
+        return out.toByteArray();
+    }
+}
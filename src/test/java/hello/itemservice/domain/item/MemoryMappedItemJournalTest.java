@@ -0,0 +1,187 @@
+package hello.itemservice.domain.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MemoryMappedItemJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recoverAcknowledgedWrites() throws Exception {
+        //given
+        Path file = dir.resolve("items.log");
+        MemoryMappedItemJournal journal = new MemoryMappedItemJournal(file);
+        ItemRepository itemRepository = new ItemRepository(journal);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Item>> saved = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            int n = i;
+            saved.add(executor.submit(() -> itemRepository.save(new Item("item" + n, 1000 + n, n))));
+        }
+        for (Future<Item> future : saved) {
+            future.get(); //save 가 반환되면 기록이 확정된 것이다.
+        }
+        executor.shutdown();
+        itemRepository.update(1L, new Item("updated", 5000, null));
+
+        //when 종료 처리(force) 없이 파일을 닫고 다시 연다. (비정상 종료)
+        journal.abandon();
+        ItemRepository recovered = new ItemRepository(new MemoryMappedItemJournal(file));
+
+        //then
+        assertThat(recovered.count()).isEqualTo(1000);
+        Item item = recovered.findById(1L);
+        assertThat(item.getItemName()).isEqualTo("updated");
+        assertThat(item.getQuantity()).isNull();
+        assertThat(recovered.save(new Item("next", 1000, 1)).getId()).isEqualTo(1001L);
+    }
+
+    @Test
+    void recoverBulkChanges() {
+        //given
+        Path file = dir.resolve("items.log");
+        ItemRepository itemRepository = new ItemRepository(new MemoryMappedItemJournal(file));
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+        itemRepository.applyAll(Map.of(itemA.getId(), new Item("updated", 10000, 10)), List.of(itemB.getId()));
+
+        //when
+        ItemRepository recovered = new ItemRepository(new MemoryMappedItemJournal(file));
+
+        //then
+        assertThat(recovered.findAll()).extracting(Item::getItemName).containsExactly("updated");
+        assertThat(recovered.findByItemName("itemB")).isEmpty();
+    }
+
+    @Test
+    void ignoreTornBulk() throws IOException {
+        //given
+        Path file = dir.resolve("items.log");
+        MemoryMappedItemJournal journal = new MemoryMappedItemJournal(file);
+        ItemRepository itemRepository = new ItemRepository(journal);
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+        itemRepository.applyAll(Map.of(itemA.getId(), new Item("updated", 10000, 10)), List.of(itemB.getId()));
+        journal.abandon();
+
+        //when 대량 변경 기록의 마지막 byte 가 쓰이지 못한 상황
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[1]), endOfRecords(file) - 1);
+        }
+
+        //then 대량 변경 전체가 없었던 것이 된다.
+        ItemRepository recovered = new ItemRepository(new MemoryMappedItemJournal(file));
+        assertThat(recovered.findAll()).extracting(Item::getItemName).containsExactlyInAnyOrder("itemA", "itemB");
+    }
+
+    @Test
+    void ignoreTornRecord() throws IOException {
+        //given
+        Path file = dir.resolve("items.log");
+        MemoryMappedItemJournal journal = new MemoryMappedItemJournal(file);
+        ItemRepository itemRepository = new ItemRepository(journal);
+        itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 20000, 20));
+        journal.close();
+
+        //when 마지막 기록이 중간까지만 쓰인 상황
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(12);
+            torn.putInt(100).putInt(12345).putInt(7).flip();
+            channel.write(torn, endOfRecords(file));
+        }
+        MemoryMappedItemJournal reopened = new MemoryMappedItemJournal(file);
+        ItemRepository recovered = new ItemRepository(reopened);
+        recovered.save(new Item("itemC", 30000, 30));
+        reopened.close();
+
+        //then
+        ItemRepository again = new ItemRepository(new MemoryMappedItemJournal(file));
+        assertThat(again.findAll()).extracting(Item::getItemName).containsExactlyInAnyOrder("itemA", "itemB", "itemC");
+    }
+
+    @Test
+    void compact() {
+        //given
+        Path file = dir.resolve("items.log");
+        ItemRepository itemRepository = new ItemRepository(new MemoryMappedItemJournal(file));
+        Item item = itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 20000, 20));
+
+        //when 압축 기준보다 많이 수정한다.
+        for (int i = 0; i <= MemoryMappedItemJournal.COMPACT_MIN_RECORDS; i++) {
+            itemRepository.update(item.getId(), new Item("itemA", 10000 + i, 10));
+        }
+
+        //then
+        MemoryMappedItemJournal journal = new MemoryMappedItemJournal(file);
+        assertThat(journal.needsCompaction(0)).isFalse();
+        ItemRepository recovered = new ItemRepository(journal);
+        assertThat(recovered.count()).isEqualTo(2);
+        assertThat(recovered.findById(item.getId()).getPrice()).isEqualTo(10000 + MemoryMappedItemJournal.COMPACT_MIN_RECORDS);
+    }
+
+    @Test
+    void maxSize() {
+        //given
+        Path file = dir.resolve("items.log");
+        ItemRepository itemRepository = new ItemRepository(new MemoryMappedItemJournal(file, 4096));
+
+        //when 파일이 가득 찰 때까지 저장한다.
+        int saved = 0;
+        Throwable error = null;
+        while (error == null) {
+            try {
+                itemRepository.save(new Item("item" + saved, 1000, 1));
+                saved++;
+            } catch (IllegalStateException e) {
+                error = e;
+            }
+        }
+
+        //then 기록하지 못한 상품은 메모리에도 없고, 기록된 상품은 다시 열어도 그대로다.
+        assertThat(error).hasMessageContaining("최대 크기");
+        assertThat(itemRepository.count()).isEqualTo(saved);
+        ItemRepository recovered = new ItemRepository(new MemoryMappedItemJournal(file, 4096));
+        assertThat(recovered.count()).isEqualTo(saved);
+    }
+
+    @Test
+    void clearStore() {
+        Path file = dir.resolve("items.log");
+        ItemRepository itemRepository = new ItemRepository(new MemoryMappedItemJournal(file));
+        itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.clearStore();
+
+        ItemRepository recovered = new ItemRepository(new MemoryMappedItemJournal(file));
+        assertThat(recovered.count()).isZero();
+    }
+
+    //파일 뒷부분은 0으로 채워져 있으므로 마지막 0이 아닌 바이트 다음이 기록의 끝이다.
+    private long endOfRecords(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] == 0) {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,78 @@
+package hello.itemservice.message;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.validation.FieldError;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class CachingMessageSourceTest {
+
+    CachingMessageCodesResolver codesResolver = new CachingMessageCodesResolver();
+
+    @Test
+    void sameCodesArray() {
+        String[] first = codesResolver.resolveMessageCodes("range", "item", "price", Integer.class);
+        String[] second = codesResolver.resolveMessageCodes("range", "item", "price", Integer.class);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first).containsExactly("range.item.price", "range.price", "range.java.lang.Integer", "range");
+    }
+
+    @Test
+    void internOnlyWhenCached() {
+        //given 캐시를 가득 채운다.
+        for (int i = 0; i < CachingMessageCodesResolver.MAX_CACHE_SIZE; i++) {
+            codesResolver.resolveMessageCodes("range", "item", "items[" + i + "].price", Integer.class);
+        }
+
+        //when
+        String[] codes = codesResolver.resolveMessageCodes("range", "item", "overflow.price", Integer.class);
+
+        //then 캐시하지 않은 코드는 intern 하지 않고, 매번 새로 만든다.
+        assertThat(codes[0]).isNotSameAs(new String("range.item.overflow.price").intern());
+        assertThat(codesResolver.resolveMessageCodes("range", "item", "overflow.price", Integer.class)).isNotSameAs(codes);
+    }
+
+    @Test
+    void cachedMessage() {
+        ResourceBundleMessageSource delegate = new ResourceBundleMessageSource();
+        delegate.setBasenames("messages", "errors");
+        delegate.setDefaultEncoding("UTF-8");
+        CachingMessageSource messageSource = new CachingMessageSource(delegate);
+
+        String[] codes = codesResolver.resolveMessageCodes("range", "item", "price", Integer.class);
+        FieldError error = new FieldError("item", "price", 0, false, codes, new Object[]{1000, 1000000}, null);
+
+        String first = messageSource.getMessage(error, Locale.KOREA);
+        String second = messageSource.getMessage(error, Locale.KOREA);
+
+        assertThat(first).isEqualTo("가격은 1,000 ~ 1,000,000 까지 허용합니다.");
+        assertThat(second).isEqualTo(first);
+        assertThat(messageSource.getMissCount()).isEqualTo(1);
+        assertThat(messageSource.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void useCodeAsDefaultMessage() {
+        //given 없는 코드를 물어보면 코드를 그대로 돌려주는 설정
+        PrecompiledMessageSource precompiled = new PrecompiledMessageSource(
+                new String[]{"messages", "errors"}, StandardCharsets.UTF_8, false, -1);
+        precompiled.setUseCodeAsDefaultMessage(true);
+        ResourceBundleMessageSource resourceBundle = new ResourceBundleMessageSource();
+        resourceBundle.setBasenames("messages", "errors");
+        resourceBundle.setDefaultEncoding("UTF-8");
+        resourceBundle.setFallbackToSystemLocale(false);
+        resourceBundle.setUseCodeAsDefaultMessage(true);
+        DefaultMessageSourceResolvable resolvable = new DefaultMessageSourceResolvable(
+                new String[]{"noSuchCode.item.price", "page.items"});
+
+        //when then 첫 코드가 아니라 메시지가 있는 코드로 찾는다.
+        assertThat(new CachingMessageSource(precompiled).getMessage(resolvable, Locale.KOREA)).isEqualTo("상품 목록");
+        assertThat(new CachingMessageSource(resourceBundle).getMessage(resolvable, Locale.KOREA)).isEqualTo("상품 목록");
+    }
+}
@@ -0,0 +1,27 @@
+package hello.itemservice.message;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MessageBundlesTest {
+
+    @Test
+    void classpathAndFile(@TempDir Path dir) throws IOException {
+        //given
+        Files.writeString(dir.resolve("errors.properties"), "range=range");
+        Files.writeString(dir.resolve("errors_fr.properties"), "range=range");
+        String[] basenames = {"messages", "file:" + dir.resolve("errors")};
+
+        //when then
+        assertThat(MessageBundles.supportedLocales(basenames))
+                .contains(Locale.getDefault(), Locale.ENGLISH, Locale.FRENCH);
+        assertThat(MessageBundles.codes(basenames)).contains("hello", "range");
+    }
+}
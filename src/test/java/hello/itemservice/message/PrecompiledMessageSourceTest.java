@@ -0,0 +1,110 @@
+package hello.itemservice.message;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PrecompiledMessageSourceTest {
+
+    //application.properties 의 spring.messages.basename=messages,errors 와 같은 설정
+    PrecompiledMessageSource messageSource = new PrecompiledMessageSource(
+            new String[]{"messages", "errors"}, StandardCharsets.UTF_8, true, -1);
+
+    @Test
+    void sameAsResourceBundleMessageSource() throws IOException {
+        ResourceBundleMessageSource expected = new ResourceBundleMessageSource();
+        expected.setBasenames("messages", "errors");
+        expected.setDefaultEncoding("UTF-8");
+
+        Set<String> codes = new TreeSet<>();
+        codes.addAll(PropertiesLoaderUtils.loadAllProperties("messages.properties").stringPropertyNames());
+        codes.addAll(PropertiesLoaderUtils.loadAllProperties("errors.properties").stringPropertyNames());
+        Object[] args = {1000, 1000000, "가격"};
+
+        for (Locale locale : new Locale[]{Locale.KOREA, Locale.ENGLISH, Locale.FRANCE}) {
+            for (String code : codes) {
+                assertThat(messageSource.getMessage(code, null, locale))
+                        .as("%s %s", code, locale).isEqualTo(expected.getMessage(code, null, locale));
+                assertThat(messageSource.getMessage(code, args, locale))
+                        .as("%s %s", code, locale).isEqualTo(expected.getMessage(code, args, locale));
+            }
+        }
+    }
+
+    @Test
+    void resolvable() {
+        //BindingResult 의 FieldError 처럼 코드 여러 개 + 필드명 인자
+        DefaultMessageSourceResolvable resolvable = new DefaultMessageSourceResolvable(
+                new String[]{"Range.item.price", "Range"},
+                new Object[]{new DefaultMessageSourceResolvable(new String[]{"item.price", "price"}, "price"), 1000000, 1000},
+                null);
+
+        assertThat(messageSource.getMessage(resolvable, Locale.KOREA)).isEqualTo("가격은 1,000 ~ 1,000,000 까지 허용합니다.");
+        assertThat(messageSource.getMessage("hello", null, Locale.ENGLISH)).isEqualTo("hello");
+        assertThat(messageSource.getMessage("no_code", null, "기본 메시지", Locale.KOREA)).isEqualTo("기본 메시지");
+        assertThat(messageSource.getLocales()).contains(Locale.ENGLISH);
+    }
+
+    @Test
+    void tooManyLocales() {
+        ResourceBundleMessageSource expected = new ResourceBundleMessageSource();
+        expected.setBasenames("messages", "errors");
+        expected.setDefaultEncoding("UTF-8");
+
+        //when Accept-Language 로 임의의 Locale 이 계속 들어온다.
+        for (int i = 0; i < PrecompiledMessageSource.MAX_LOCALES * 2; i++) {
+            messageSource.getMessage("hello", null, new Locale("zz", "A" + i));
+        }
+
+        //then 더 만들지 않고, 이미 만든 Locale 에서 같은 결과를 찾는다.
+        assertThat(messageSource.getLocales()).hasSizeLessThanOrEqualTo(PrecompiledMessageSource.MAX_LOCALES);
+        for (Locale locale : new Locale[]{new Locale("en", "ZZ"), new Locale("xx", "YY")}) {
+            assertThat(messageSource.getMessage("label.item.itemName", null, locale))
+                    .as("%s", locale).isEqualTo(expected.getMessage("label.item.itemName", null, locale));
+        }
+    }
+
+    @Test
+    void quotesAndFormats() {
+        assertThat(PrecompiledMessageSource.CompiledMessage.compile("it''s '{0}' {0}")).isNotNull();
+        assertThatThrownBy(() -> PrecompiledMessageSource.CompiledMessage.compile("{0,unknown}"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void reloadOnChange(@TempDir Path dir) throws IOException {
+        //given
+        Path file = dir.resolve("errors.properties");
+        Files.writeString(file, "range=before {0}");
+        PrecompiledMessageSource reloadable = new PrecompiledMessageSource(
+                new String[]{"file:" + dir.resolve("errors")}, StandardCharsets.UTF_8, false, 0);
+        assertThat(reloadable.getMessage("range", new Object[]{1}, Locale.KOREA)).isEqualTo("before 1");
+
+        //when 파일 수정, 새 Locale 파일 추가
+        Files.writeString(file, "range=after {0}");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+        Files.writeString(dir.resolve("errors_en.properties"), "range=english {0}");
+
+        //then
+        assertThat(reloadable.getMessage("range", new Object[]{1}, Locale.KOREA)).isEqualTo("after 1");
+        assertThat(reloadable.getMessage("range", new Object[]{1}, Locale.ENGLISH)).isEqualTo("english 1");
+
+        //잘못된 패턴으로 수정하면 이전 메시지를 계속 사용한다.
+        Files.writeString(file, "range=broken {0");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 20_000));
+        assertThat(reloadable.getMessage("range", new Object[]{1}, Locale.KOREA)).isEqualTo("after 1");
+    }
+}
@@ -0,0 +1,130 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.web.validation.ErrorBudgetValidatorAdapter;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemSaveFormValidator;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import hello.itemservice.web.validation.form.ItemUpdateFormValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.validation.Validator;
+
+import javax.validation.Validation;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class FormValidatorParityTest {
+
+    //애플리케이션의 글로벌 검증기와 같은 어댑터 (@MinTotal 위반을 totalPriceMin 으로 남긴다)
+    Validator beanValidator = new ErrorBudgetValidatorAdapter(Validation.buildDefaultValidatorFactory());
+
+    @Test
+    void saveFormParity() {
+        assertParity(new ItemSaveFormValidator(), saveForm("itemA", 10000, 10));
+        assertParity(new ItemSaveFormValidator(), saveForm(" ", 0, 10000));
+        assertParity(new ItemSaveFormValidator(), saveForm(null, null, null));
+        assertParity(new ItemSaveFormValidator(), saveForm("", 1000001, 9999));
+        assertParity(new ItemSaveFormValidator(), saveForm("itemA", 1000, 5));
+        assertParity(new ItemSaveFormValidator(), saveForm("itemA", 1000000, -9999));
+    }
+
+    @Test
+    void updateFormParity() {
+        assertParity(new ItemUpdateFormValidator(), updateForm(1L, "itemA", 10000, 10, 1L));
+        assertParity(new ItemUpdateFormValidator(), updateForm(null, " ", 999, null, 1L));
+        assertParity(new ItemUpdateFormValidator(), updateForm(null, null, null, 100000, null));
+        assertParity(new ItemUpdateFormValidator(), updateForm(1L, "itemA", 1000, 9, 1L));
+    }
+
+    @Test
+    void sameMessageCodes() {
+        BindingResult bindingResult = validate(new ItemSaveFormValidator(), saveForm(" ", 0, 10000));
+
+        assertThat(bindingResult.getFieldError("itemName").getCodes()).contains("NotBlank.item.itemName");
+        assertThat(bindingResult.getFieldError("price").getCodes()).contains("Range.item.price");
+        assertThat(bindingResult.getFieldError("quantity").getCodes()).contains("Max.item.quantity");
+    }
+
+    @Test
+    void sameGlobalError() {
+        //given
+        ItemSaveForm form = saveForm("itemA", 1000, 5);
+
+        //when
+        BindingResult expected = validate(beanValidator, form);
+        BindingResult actual = validate(new ItemSaveFormValidator(), form);
+
+        //then
+        assertThat(expected.getGlobalErrors()).hasSize(1);
+        assertThat(expected.getGlobalError().getCodes()).containsExactly("totalPriceMin.item", "totalPriceMin");
+        assertThat(expected.getGlobalError().getArguments()).containsExactly(10000L, 5000L);
+
+        assertThat(actual.getGlobalErrors()).hasSize(1);
+        assertThat(actual.getGlobalError().getCodes()).containsExactly("totalPriceMin.item", "totalPriceMin");
+        assertThat(actual.getGlobalError().getArguments()).containsExactly(10000L, 5000L);
+    }
+
+    private void assertParity(Validator validator, Object form) {
+        BindingResult expected = validate(beanValidator, form);
+        BindingResult actual = validate(validator, form);
+        assertThat(describeFields(actual)).isEqualTo(describeFields(expected));
+        assertThat(describeGlobals(actual)).isEqualTo(describeGlobals(expected));
+    }
+
+    //폼 검증기는 V4 의 규칙(ItemRuleConfig)처럼 필드 검증 뒤에 @MinTotal 을 MinTotalValidator.check 로 검증한다.
+    private BindingResult validate(Validator validator, Object form) {
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+        validator.validate(form, bindingResult);
+        if (validator != beanValidator) {
+            MinTotalValidator.check(form, bindingResult);
+        }
+        return bindingResult;
+    }
+
+    //기본 메시지는 Locale 에 따라 다르므로 코드와 arguments 만 비교한다.
+    private List<String> describeFields(BindingResult bindingResult) {
+        return bindingResult.getFieldErrors().stream()
+                .map(this::describe)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private List<String> describeGlobals(BindingResult bindingResult) {
+        return bindingResult.getGlobalErrors().stream()
+                .map(this::describe)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private String describe(FieldError error) {
+        return error.getField() + " " + Arrays.toString(error.getCodes()) + " " + Arrays.toString(error.getArguments());
+    }
+
+    private String describe(ObjectError error) {
+        return Arrays.toString(error.getCodes()) + " " + Arrays.toString(error.getArguments());
+    }
+
+    private ItemSaveForm saveForm(String itemName, Integer price, Integer quantity) {
+        ItemSaveForm form = new ItemSaveForm();
+        form.setItemName(itemName);
+        form.setPrice(price);
+        form.setQuantity(quantity);
+        return form;
+    }
+
+    private ItemUpdateForm updateForm(Long id, String itemName, Integer price, Integer quantity, Long version) {
+        ItemUpdateForm form = new ItemUpdateForm();
+        form.setId(id);
+        form.setItemName(itemName);
+        form.setPrice(price);
+        form.setQuantity(quantity);
+        form.setVersion(version);
+        return form;
+    }
+}
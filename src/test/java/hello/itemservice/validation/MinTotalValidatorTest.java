@@ -0,0 +1,166 @@
+package hello.itemservice.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.ObjectError;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MinTotalValidatorTest {
+
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void beanValidation() {
+        //given
+        ItemSaveForm form = saveForm(1000, 5);
+
+        //when
+        Set<ConstraintViolation<ItemSaveForm>> violations = validator.validate(form);
+
+        //then
+        assertThat(violations).hasSize(1);
+        ConstraintViolation<ItemSaveForm> violation = violations.iterator().next();
+        assertThat(violation.getConstraintDescriptor().getAnnotation()).isInstanceOf(MinTotal.class);
+        assertThat(violation.getMessage()).contains("10000").contains("5000");
+    }
+
+    @Test
+    void parentAndChildConstraints() {
+        //부모의 @MinTotal(min = 10000) 과 자식의 @MinTotal(min = 100) 을 각자의 속성으로 검증한다.
+        Set<ConstraintViolation<ChildTarget>> violations = validator.validate(new ChildTarget(10, 20));
+
+        assertThat(violations).hasSize(1);
+        MinTotal minTotal = (MinTotal) violations.iterator().next().getConstraintDescriptor().getAnnotation();
+        assertThat(minTotal.min()).isEqualTo(10000);
+    }
+
+    @Test
+    void interfaceConstraint() {
+        //클래스에는 @MinTotal 이 없고 인터페이스에만 있다.
+        assertThat(validator.validate(new PricedTarget(1000, 5))).hasSize(1);
+        assertThat(validator.validate(new PricedTarget(1000, 10))).isEmpty();
+    }
+
+    @Test
+    void check() {
+        //given
+        ItemSaveForm item = saveForm(1000, 5);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+
+        //when
+        MinTotalValidator.check(item, bindingResult);
+
+        //then
+        ObjectError error = bindingResult.getGlobalError();
+        assertThat(error.getCodes()).contains("totalPriceMin.item", "totalPriceMin");
+        assertThat(error.getArguments()).containsExactly(10000L, 5000L);
+    }
+
+    @Test
+    void nullIsSkipped() {
+        Item item = new Item("itemA", null, 5);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+
+        MinTotalValidator.check(item.getPrice(), item.getQuantity(), Item.MIN_TOTAL_PRICE, bindingResult);
+
+        assertThat(bindingResult.hasErrors()).isFalse();
+        assertThat(validator.validate(saveForm(1000, null))).isEmpty();
+    }
+
+    @Test
+    void noOverflow() {
+        //int 곱셈이면 0 이 되어 잘못 거절되던 값
+        ItemSaveForm item = saveForm(65536, 65536);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+
+        MinTotalValidator.check(item, bindingResult);
+
+        assertThat(bindingResult.hasErrors()).isFalse();
+        assertThat(MinTotalValidator.multiply(Long.MAX_VALUE, 2)).isEqualTo(Long.MAX_VALUE);
+        assertThat(MinTotalValidator.multiply(Long.MAX_VALUE, -2)).isEqualTo(Long.MIN_VALUE);
+    }
+
+    private ItemSaveForm saveForm(Integer price, Integer quantity) {
+        ItemSaveForm form = new ItemSaveForm();
+        form.setItemName("itemA");
+        form.setPrice(price);
+        form.setQuantity(quantity);
+        return form;
+    }
+
+    @Test
+    void itemHasNoConstraint() {
+        //엔티티는 Validator 가 직접 검증하므로 Bean Validation 오류가 중복으로 생기지 않는다.
+        Item item = new Item("itemA", 1000, 5);
+        assertThat(validator.validate(item)).isEmpty();
+
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+        MinTotalValidator.check(item, bindingResult);
+        assertThat(bindingResult.hasErrors()).isFalse();
+
+        MinTotalValidator.check(item.getPrice(), item.getQuantity(), Item.MIN_TOTAL_PRICE, bindingResult);
+        assertThat(bindingResult.getGlobalError().getArguments()).containsExactly(10000L, 5000L);
+    }
+
+    @MinTotal(price = "price", quantity = "quantity", min = 10000)
+    public static class ParentTarget {
+        private final Integer price;
+        private final Integer quantity;
+
+        ParentTarget(Integer price, Integer quantity) {
+            this.price = price;
+            this.quantity = quantity;
+        }
+
+        public Integer getPrice() {
+            return price;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+    }
+
+    @MinTotal(price = "price", quantity = "quantity", min = 100)
+    public static class ChildTarget extends ParentTarget {
+        ChildTarget(Integer price, Integer quantity) {
+            super(price, quantity);
+        }
+    }
+
+    @MinTotal(price = "price", quantity = "quantity", min = 10000)
+    public interface Priced {
+        Integer getPrice();
+
+        Integer getQuantity();
+    }
+
+    public static class PricedTarget implements Priced {
+        private final Integer price;
+        private final Integer quantity;
+
+        PricedTarget(Integer price, Integer quantity) {
+            this.price = price;
+            this.quantity = quantity;
+        }
+
+        @Override
+        public Integer getPrice() {
+            return price;
+        }
+
+        @Override
+        public Integer getQuantity() {
+            return quantity;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticMessageSource;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ApiErrorWriterTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void write() throws Exception {
+        //given
+        StaticMessageSource messageSource = new StaticMessageSource();
+        messageSource.addMessage("range.item.price", Locale.KOREAN, "가격은 {0} ~ {1} 까지 허용합니다.");
+        ApiErrorWriter apiErrorWriter = new ApiErrorWriter(objectMapper, messageSource);
+
+        BindingResult bindingResult = new BeanPropertyBindingResult(new ItemSaveForm(), "item");
+        bindingResult.rejectValue("price", "range", new Object[]{1000, 1000000}, null);
+        bindingResult.reject("totalPriceMin", new Object[]{10000, 5000}, "전체 가격 오류");
+
+        //when
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        apiErrorWriter.write(bindingResult, Locale.KOREAN, out);
+
+        //then
+        JsonNode errors = objectMapper.readTree(out.toByteArray());
+        assertThat(errors).hasSize(2);
+        assertThat(errors.get(0).get("field").asText()).isEqualTo("price");
+        assertThat(errors.get(0).get("code").asText()).isEqualTo("range");
+        assertThat(errors.get(0).get("message").asText()).isEqualTo("가격은 1,000 ~ 1,000,000 까지 허용합니다.");
+        assertThat(errors.get(1).has("field")).isFalse();
+        assertThat(errors.get(1).get("message").asText()).isEqualTo("전체 가격 오류");
+    }
+}
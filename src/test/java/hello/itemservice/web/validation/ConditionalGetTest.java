@@ -0,0 +1,71 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.message.MessagesReloadedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Test
+    void items() throws Exception {
+        String etag = mockMvc.perform(get("/validation/v4/items"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/validation/v4/items").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        //변경이 있으면 다시 내려준다.
+        itemRepository.save(new Item("itemC", 30000, 30));
+        mockMvc.perform(get("/validation/v4/items").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void item() throws Exception {
+        Item item = itemRepository.save(new Item("itemD", 40000, 40));
+        String etag = mockMvc.perform(get("/validation/v4/items/{itemId}", item.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/validation/v4/items/{itemId}", item.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        itemRepository.update(item.getId(), new Item("itemD", 50000, 40));
+        mockMvc.perform(get("/validation/v4/items/{itemId}", item.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void messagesReloaded() throws Exception {
+        String etag = mockMvc.perform(get("/validation/v4/items"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //메시지 파일을 다시 읽으면 상품이 그대로여도 새 문구로 다시 내려준다.
+        eventPublisher.publishEvent(new MessagesReloadedEvent(this));
+        mockMvc.perform(get("/validation/v4/items").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,165 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ErrorBudgetTest {
+
+    ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory();
+    ErrorBudgetValidatorAdapter beanValidator = new ErrorBudgetValidatorAdapter(validatorFactory);
+
+    @AfterEach
+    void afterEach() {
+        RequestContextHolder.resetRequestAttributes();
+        validatorFactory.close();
+    }
+
+    @Test
+    void unlimitedWithoutRequest() {
+        BindingResult bindingResult = validate(beanValidator, badForm());
+        assertThat(bindingResult.getErrorCount()).isEqualTo(4); //NotBlank, Range, Max, totalPriceMin
+        assertThat(bindingResult.getGlobalError().getCodes()).containsExactly("totalPriceMin.item", "totalPriceMin");
+        assertThat(bindingResult.getGlobalError().getArguments()).containsExactly(10000L, 0L);
+    }
+
+    @Test
+    void failFastEndpoint() throws Exception {
+        //given
+        HandlerMethod handler = new HandlerMethod(new ValidationItemController(null, null, null, null, null),
+                ValidationItemController.class.getMethod("addItem", ItemSaveForm.class, BindingResult.class,
+                        Locale.class, HttpServletResponse.class));
+        startRequest(handler, null);
+
+        //when
+        BindingResult bindingResult = validate(beanValidator, badForm());
+
+        //then
+        assertThat(bindingResult.getErrorCount()).isEqualTo(1);
+    }
+
+    @Test
+    void headerBudget() {
+        startRequest(null, "2");
+
+        assertThat(validate(beanValidator, badForm()).getErrorCount()).isEqualTo(2);
+        assertThat(validate(new ItemValidator(new ItemRepository()), new Item(" ", 0, 10000)).getErrorCount()).isEqualTo(2);
+    }
+
+    @Test
+    void stopAtBudget() {
+        //given 검증 호출을 기록한다.
+        List<String> calls = new ArrayList<>();
+        Validator target = validatorFactory.getValidator();
+        Validator recording = (Validator) Proxy.newProxyInstance(getClass().getClassLoader(), new Class[]{Validator.class},
+                (proxy, method, args) -> {
+                    if (method.getName().startsWith("validate")) {
+                        calls.add(method.getName() + (args.length > 1 && args[1] instanceof String ? " " + args[1] : ""));
+                    }
+                    return method.invoke(target, args);
+                });
+        ErrorBudgetValidatorAdapter adapter = new ErrorBudgetValidatorAdapter(recording, validatorFactory.getValidator());
+        startRequest(null, "2");
+
+        //when
+        BindingResult bindingResult = validate(adapter, badForm());
+
+        //then 두 속성에서 한도를 채웠으므로 quantity 와 클래스 단위 제약은 검증하지 않는다.
+        assertThat(bindingResult.getErrorCount()).isEqualTo(2);
+        assertThat(bindingResult.getFieldError("itemName").getCode()).isEqualTo("NotBlank");
+        assertThat(bindingResult.getFieldError("price").getCode()).isEqualTo("Range");
+        assertThat(calls).containsExactly("validateProperty itemName", "validateProperty price");
+    }
+
+    @Test
+    void classLevelWithinBudget() {
+        startRequest(null, "3");
+
+        BindingResult bindingResult = validate(beanValidator, form("itemA", 1000, 5));
+
+        assertThat(bindingResult.getErrorCount()).isEqualTo(1);
+        assertThat(bindingResult.getGlobalError().getCode()).isEqualTo("totalPriceMin");
+    }
+
+    @Test
+    void headerCannotRaiseEndpointBudget() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new ValidationItemController(null, null, null, null, null),
+                ValidationItemController.class.getMethod("addItem", ItemSaveForm.class, BindingResult.class,
+                        Locale.class, HttpServletResponse.class));
+        startRequest(handler, "10");
+
+        assertThat(validate(beanValidator, badForm()).getErrorCount()).isEqualTo(1);
+    }
+
+    @Test
+    void internalCallerRaisesEndpointBudget() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new ValidationItemController(null, null, null, null, null),
+                ValidationItemController.class.getMethod("addItem", ItemSaveForm.class, BindingResult.class,
+                        Locale.class, HttpServletResponse.class));
+
+        //토큰이 맞으면 헤더 값이 엔드포인트 한도보다 우선한다. (0 이면 한도 없음)
+        startRequest(handler, "0", "secret");
+        assertThat(validate(beanValidator, badForm()).getErrorCount()).isEqualTo(4);
+
+        startRequest(handler, "3", "secret");
+        assertThat(validate(beanValidator, badForm()).getErrorCount()).isEqualTo(3);
+
+        //토큰이 틀리면 줄이기만 할 수 있다.
+        startRequest(handler, "0", "wrong");
+        assertThat(validate(beanValidator, badForm()).getErrorCount()).isEqualTo(1);
+    }
+
+    private void startRequest(Object handler, String header) {
+        startRequest(handler, header, null);
+    }
+
+    private void startRequest(Object handler, String header, String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (header != null) {
+            request.addHeader(ErrorBudgets.HEADER, header);
+        }
+        if (token != null) {
+            request.addHeader(ErrorBudgets.TOKEN_HEADER, token);
+        }
+        new ErrorBudgets.Interceptor("secret").preHandle(request, new MockHttpServletResponse(), handler);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private BindingResult validate(org.springframework.validation.Validator validator, Object target) {
+        BindingResult bindingResult = new BeanPropertyBindingResult(target, "item");
+        validator.validate(target, bindingResult);
+        return bindingResult;
+    }
+
+    private ItemSaveForm badForm() {
+        return form(" ", 0, 10000);
+    }
+
+    private ItemSaveForm form(String itemName, Integer price, Integer quantity) {
+        ItemSaveForm form = new ItemSaveForm();
+        form.setItemName(itemName);
+        form.setPrice(price);
+        form.setQuantity(quantity);
+        return form;
+    }
+}
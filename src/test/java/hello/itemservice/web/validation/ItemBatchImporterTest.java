@@ -0,0 +1,122 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.validation.form.ItemSaveFormValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemBatchImporterTest {
+
+    ObjectMapper objectMapper = new ObjectMapper();
+    ItemRepository itemRepository = new ItemRepository();
+    ItemBatchImporter importer = new ItemBatchImporter(objectMapper, itemRepository, new ItemSaveFormValidator());
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void jsonArray() throws IOException {
+        JsonNode result = importItems("[" +
+                "{\"itemName\":\"itemA\",\"price\":10000,\"quantity\":10}," +
+                "{\"itemName\":\" \",\"price\":0,\"quantity\":10}," +
+                "{\"itemName\":\"itemC\",\"price\":\"abc\",\"quantity\":10}" +
+                "]");
+
+        assertThat(result.size()).isEqualTo(3);
+        assertThat(result.get(0).get("id").asLong()).isPositive();
+        assertThat(result.get(1).get("errors").findValuesAsText("code")).contains("NotBlank", "Range");
+        assertThat(result.get(2).get("errors").get(0).get("code").asText()).isEqualTo("typeMismatch");
+        assertThat(itemRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void typeMismatchField() throws IOException {
+        JsonNode result = importItems("[" +
+                "{\"itemName\":\" \",\"price\":\"abc\",\"quantity\":{\"value\":10}}," +
+                "[1, 2]" +
+                "]");
+
+        //타입이 맞지 않는 필드를 알려주고, 나머지 필드는 그대로 검증한다. (price 의 NotNull 은 나오지 않는다)
+        JsonNode errors = result.get(0).get("errors");
+        assertThat(errors.size()).isEqualTo(3);
+        assertThat(errors.get(0).get("field").asText()).isEqualTo("price");
+        assertThat(errors.get(0).get("code").asText()).isEqualTo("typeMismatch");
+        assertThat(errors.get(1).get("field").asText()).isEqualTo("quantity");
+        assertThat(errors.get(1).get("code").asText()).isEqualTo("typeMismatch");
+        assertThat(errors.get(2).get("field").asText()).isEqualTo("itemName");
+        assertThat(errors.get(2).get("code").asText()).isEqualTo("NotBlank");
+
+        //객체가 아닌 행은 필드가 없으므로 global 오류다.
+        assertThat(result.get(1).get("errors").get(0).has("field")).isFalse();
+        assertThat(result.get(1).get("errors").get(0).get("code").asText()).isEqualTo("typeMismatch");
+        assertThat(itemRepository.findAll()).isEmpty();
+    }
+
+    @Test
+    void invalidJson() throws IOException {
+        //given 첫 청크를 저장한 뒤에 문법이 깨진다.
+        StringBuilder body = new StringBuilder();
+        int count = ItemBatchImporter.CHUNK_SIZE + 1;
+        for (int i = 0; i < count; i++) {
+            body.append("{\"itemName\":\"item").append(i).append("\",\"price\":1000,\"quantity\":10}\n");
+        }
+        body.append("{\"itemName\":\"broken\",\"price\":,\"quantity\":10}\n");
+        body.append("{\"itemName\":\"notRead\",\"price\":1000,\"quantity\":10}\n");
+
+        //when 응답은 잘리지 않고 올바른 JSON 배열로 끝난다.
+        JsonNode result = importItems(body.toString());
+
+        //then 깨진 위치 앞의 행은 모두 저장되고, 깨진 위치가 마지막 행으로 남는다.
+        assertThat(result.size()).isEqualTo(count + 1);
+        assertThat(result.get(count - 1).get("id").asLong()).isPositive();
+        JsonNode last = result.get(count);
+        assertThat(last.get("index").asInt()).isEqualTo(count);
+        assertThat(last.get("errors").get(0).get("code").asText()).isEqualTo("invalidJson");
+        assertThat(itemRepository.findAll()).hasSize(count);
+    }
+
+    @Test
+    void invalidJsonInArray() throws IOException {
+        JsonNode result = importItems("[" +
+                "{\"itemName\":\"itemA\",\"price\":10000,\"quantity\":10}," +
+                "{\"itemName\":\"itemB\",\"price\":10000,\"quantity\":10}" +
+                "{\"itemName\":\"itemC\"");
+
+        assertThat(result.size()).isEqualTo(3);
+        assertThat(result.get(1).get("id").asLong()).isPositive();
+        assertThat(result.get(2).get("errors").get(0).get("code").asText()).isEqualTo("invalidJson");
+        assertThat(itemRepository.findAll()).hasSize(2);
+    }
+
+    @Test
+    void ndjson() throws IOException {
+        StringBuilder body = new StringBuilder();
+        int count = ItemBatchImporter.CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < count; i++) {
+            body.append("{\"itemName\":\"item").append(i).append("\",\"price\":1000,\"quantity\":10}\n");
+        }
+
+        JsonNode result = importItems(body.toString());
+
+        assertThat(result.size()).isEqualTo(count);
+        assertThat(result.get(count - 1).get("index").asInt()).isEqualTo(count - 1);
+        assertThat(itemRepository.findAll()).hasSize(count);
+    }
+
+    private JsonNode importItems(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importer.importItems(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+}
@@ -0,0 +1,133 @@
+package hello.itemservice.web.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import hello.itemservice.web.validation.form.ItemUpdateFormValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemBulkUpdaterTest {
+
+    ItemRepository itemRepository = new ItemRepository();
+    ItemBulkUpdater updater = new ItemBulkUpdater(itemRepository, new ItemUpdateFormValidator());
+
+    @AfterEach
+    void afterEach() {
+        itemRepository.clearStore();
+    }
+
+    @Test
+    void rejectAllWhenOneIsInvalid() {
+        //given
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+        Map<Long, ItemUpdateForm> updates = new LinkedHashMap<>();
+        updates.put(itemA.getId(), form(itemA, 20000));
+        updates.put(itemB.getId(), form(itemB, 100)); //Range, totalPriceMin
+
+        //when
+        List<ItemBulkUpdater.Result> results = updater.updateAll(updates);
+
+        //then
+        assertThat(results).extracting(ItemBulkUpdater.Result::getStatus).containsExactly("rejected", "skipped");
+        assertThat(results.get(0).getId()).isEqualTo(itemB.getId());
+        assertThat(results.get(0).getErrors()).extracting(ItemBulkUpdater.Error::getCode)
+                .containsExactlyInAnyOrder("Range", "totalPriceMin");
+        assertThat(itemRepository.findById(itemA.getId()).getPrice()).isEqualTo(10000);
+    }
+
+    @Test
+    void updateAndDelete() {
+        //given
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 20000, 20));
+
+        //when
+        List<ItemBulkUpdater.Result> results = updater.apply(Map.of(itemA.getId(), form(itemA, 30000)), List.of(itemB.getId(), 999L));
+
+        //then
+        assertThat(results).extracting(ItemBulkUpdater.Result::getStatus).containsExactly("updated", "deleted", "notFound");
+        assertThat(itemRepository.findAll()).extracting(Item::getPrice).containsExactly(30000);
+    }
+
+    @Test
+    void updateAndDeleteSameId() {
+        //given
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+
+        //when
+        List<ItemBulkUpdater.Result> results = updater.apply(Map.of(itemA.getId(), form(itemA, 30000)), List.of(itemA.getId()));
+
+        //then
+        assertThat(results.get(0).getStatus()).isEqualTo("rejected");
+        assertThat(results.get(0).getErrors()).extracting(ItemBulkUpdater.Error::getCode).containsExactly("updateAndDelete");
+        assertThat(itemRepository.findById(itemA.getId()).getPrice()).isEqualTo(10000);
+    }
+
+    @Test
+    void nullRequest() throws Exception {
+        //given update 는 null, delete 는 빠진 요청, null 수정 내용
+        ItemBulkUpdater.Request request = new ObjectMapper().readValue("{\"update\": null}", ItemBulkUpdater.Request.class);
+        Map<Long, ItemUpdateForm> updates = new LinkedHashMap<>();
+        updates.put(1L, null);
+
+        //when
+        List<ItemBulkUpdater.Result> empty = updater.apply(request.getUpdate(), request.getDelete());
+        List<ItemBulkUpdater.Result> results = updater.apply(updates, Collections.singletonList(null));
+
+        //then
+        assertThat(empty).isEmpty();
+        assertThat(results).extracting(ItemBulkUpdater.Result::getStatus).containsExactly("rejected");
+        assertThat(results.get(0).getErrors().get(0).getCode()).isEqualTo("required");
+    }
+
+    @Test
+    void staleVersion() {
+        //given 조회한 뒤에 다른 요청이 먼저 수정
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        ItemUpdateForm form = form(itemA, 30000);
+        itemRepository.update(itemA.getId(), new Item("other", 10000, 10));
+
+        //when
+        List<ItemBulkUpdater.Result> results = updater.updateAll(Map.of(itemA.getId(), form));
+
+        //then
+        assertThat(results.get(0).getErrors().get(0).getCode()).isEqualTo("staleVersion");
+        assertThat(itemRepository.findById(itemA.getId()).getItemName()).isEqualTo("other");
+    }
+
+    @Test
+    void updateWhere() {
+        //given
+        itemRepository.save(new Item("itemA", 10000, 10));
+        itemRepository.save(new Item("itemB", 50000, 10));
+
+        //when 가격이 2만원 이하인 상품을 10% 인상
+        List<ItemBulkUpdater.Result> results = updater.updateWhere(item -> item.getPrice() <= 20000,
+                form -> form.setPrice(form.getPrice() * 110 / 100));
+
+        //then
+        assertThat(results).hasSize(1);
+        assertThat(itemRepository.findByItemName("itemA").get(0).getPrice()).isEqualTo(11000);
+        assertThat(itemRepository.findByItemName("itemB").get(0).getPrice()).isEqualTo(50000);
+    }
+
+    private static ItemUpdateForm form(Item item, int price) {
+        ItemUpdateForm form = new ItemUpdateForm();
+        form.setId(item.getId());
+        form.setItemName(item.getItemName());
+        form.setPrice(price);
+        form.setQuantity(item.getQuantity());
+        form.setVersion(item.getVersion());
+        return form;
+    }
+}
@@ -0,0 +1,160 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemChangeStreamTest {
+
+    ItemRepository itemRepository = new ItemRepository();
+    //자동으로 읽지 않도록 간격을 길게 두고 poll() 을 직접 호출한다.
+    ItemChangeStream stream = new ItemChangeStream(itemRepository, 3_600_000, 1_800_000, 2, 100);
+    CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void afterEach() {
+        release.countDown();
+        stream.destroy();
+    }
+
+    @Test
+    void slowSubscriberDoesNotBlockOthers() throws Exception {
+        //given 첫 전송에서 멈추는 구독자와 바로 받는 구독자
+        CountDownLatch blocked = new CountDownLatch(1);
+        stream.subscribe(1L, new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        List<SseEmitter.SseEventBuilder> received = new CopyOnWriteArrayList<>();
+        stream.subscribe(1L, new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                received.add(builder);
+            }
+        });
+
+        //when 큐(2개)보다 많은 변경
+        for (int i = 0; i < 5; i++) {
+            itemRepository.save(new Item("item" + i, 1000, 1));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (received.size() < 5 && System.nanoTime() < deadline) {
+            stream.poll();
+            Thread.sleep(10);
+        }
+
+        //then 빠른 구독자는 모두 받고, 멈춘 구독자는 send-timeout 이 지나면 끊긴다.
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(received).hasSize(5);
+        Thread.sleep(150);
+        stream.poll();
+        assertThat(stream.getSubscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void eventIdHasEpoch() throws Exception {
+        //given
+        List<SseEmitter.SseEventBuilder> received = new CopyOnWriteArrayList<>();
+        stream.subscribe(null, collect(received));
+
+        //when
+        itemRepository.save(new Item("itemA", 1000, 1));
+        long sequence = itemRepository.getChangeLog().getSequence();
+        List<String> events = await(received, 1);
+
+        //then
+        assertThat(events.get(0)).contains("id:" + itemRepository.getEpoch() + "-" + sequence, "event:created");
+    }
+
+    @Test
+    void futureFromSendsGap() throws Exception {
+        //given 재시작 전에 받은 순서 번호처럼 아직 없는 순서 번호
+        itemRepository.save(new Item("itemA", 1000, 1));
+        long sequence = itemRepository.getChangeLog().getSequence();
+        List<SseEmitter.SseEventBuilder> received = new CopyOnWriteArrayList<>();
+
+        //when
+        stream.subscribe(sequence + 100, collect(received));
+        itemRepository.save(new Item("itemB", 2000, 2));
+        List<String> events = await(received, 2);
+
+        //then 지금 위치부터 이어서 보낸다.
+        assertThat(events.get(0)).contains("event:gap", "next=" + (sequence + 1));
+        assertThat(events.get(1)).contains("id:" + itemRepository.getEpoch() + "-" + (sequence + 1), "event:created");
+    }
+
+    @Test
+    void resumeWithOtherEpochSendsGap() throws Exception {
+        //given 저장소를 비우기 전에 받은 id
+        itemRepository.save(new Item("itemA", 1000, 1));
+        String lastEventId = itemRepository.getEpoch() + "-" + itemRepository.getChangeLog().getSequence();
+        itemRepository.clearStore();
+        List<SseEmitter.SseEventBuilder> received = new CopyOnWriteArrayList<>();
+
+        //when
+        stream.resume(lastEventId, collect(received));
+        List<String> events = await(received, 1);
+
+        //then
+        assertThat(events.get(0)).contains("id:" + itemRepository.getEpoch() + "-", "event:gap");
+    }
+
+    @Test
+    void resumeWithSameEpoch() throws Exception {
+        //given
+        itemRepository.save(new Item("itemA", 1000, 1));
+        long sequence = itemRepository.getChangeLog().getSequence();
+        String lastEventId = itemRepository.getEpoch() + "-" + sequence;
+        itemRepository.save(new Item("itemB", 2000, 2));
+        List<SseEmitter.SseEventBuilder> received = new CopyOnWriteArrayList<>();
+
+        //when
+        stream.resume(lastEventId, collect(received));
+        List<String> events = await(received, 1);
+
+        //then 놓친 변경부터 이어서 받는다.
+        assertThat(events.get(0))
+                .contains("id:" + itemRepository.getEpoch() + "-" + (sequence + 1), "event:created")
+                .doesNotContain("event:gap");
+    }
+
+    private SseEmitter collect(List<SseEmitter.SseEventBuilder> received) {
+        return new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                received.add(builder);
+            }
+        };
+    }
+
+    private List<String> await(List<SseEmitter.SseEventBuilder> received, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (received.size() < count && System.nanoTime() < deadline) {
+            stream.poll();
+            Thread.sleep(10);
+        }
+        assertThat(received).hasSizeGreaterThanOrEqualTo(count);
+        return received.stream()
+                .map(builder -> builder.build().stream()
+                        .map(data -> String.valueOf(data.getData()))
+                        .collect(Collectors.joining()))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,107 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ItemListFragmentsTest {
+
+    ItemRepository itemRepository = new ItemRepository();
+    ItemListFragments fragments = new ItemListFragments(messageSource(), itemRepository, 4);
+
+    @Test
+    void header() {
+        assertThat(fragments.header(Locale.ENGLISH)).contains("<th>Item Name</th>");
+        assertThat(fragments.header(Locale.KOREA)).contains("<th>상품명</th>");
+    }
+
+    @Test
+    void labels() {
+        Map<String, String> labels = fragments.labels(Locale.KOREA);
+
+        assertThat(labels).containsKeys(ItemListFragments.LABEL_CODES.toArray(new String[0]));
+        assertThat(labels.get("page.updateItem")).isEqualTo("상품 수정");
+        assertThat(fragments.labels(Locale.KOREA)).isSameAs(labels);
+
+        //메시지 파일을 다시 읽으면 다시 찾는다.
+        fragments.clearLabels();
+        assertThat(fragments.labels(Locale.KOREA)).isNotSameAs(labels).isEqualTo(labels);
+    }
+
+    @Test
+    void rowChangesWithVersion() {
+        //given
+        Item item = item(1L, 1L, "<itemA>");
+        String first = fragments.rows(List.of(item), "/validation/v4/items");
+
+        //when
+        Item updated = item(1L, 2L, "itemB");
+        String second = fragments.rows(List.of(updated), "/validation/v4/items");
+
+        //then
+        assertThat(first).contains("<a href=\"/validation/v4/items/1\">&lt;itemA&gt;</a>");
+        assertThat(second).contains("itemB").doesNotContain("itemA");
+    }
+
+    @Test
+    void rowChangesWithEpoch() {
+        //given
+        String first = fragments.rows(List.of(item(1L, 1L, "itemA")), "/validation/v4/items");
+
+        //when 저장소를 비우면 같은 id, version 으로 다른 상품이 저장될 수 있다.
+        itemRepository.clearStore();
+        String second = fragments.rows(List.of(item(1L, 1L, "itemB")), "/validation/v4/items");
+
+        //then
+        assertThat(first).contains("itemA");
+        assertThat(second).contains("itemB").doesNotContain("itemA");
+    }
+
+    @Test
+    void evictDeletedAndCleared() {
+        //given
+        Item itemA = itemRepository.save(new Item("itemA", 10000, 10));
+        Item itemB = itemRepository.save(new Item("itemB", 10000, 10));
+        fragments.rows(List.of(itemA, itemB), "/validation/v4/items");
+        assertThat(fragments.cachedRows()).isEqualTo(2);
+
+        //when then 삭제된 상품의 행은 다음 목록을 그릴 때 지운다.
+        itemRepository.deleteByIds(List.of(itemA.getId()));
+        fragments.rows(List.of(), "/validation/v4/items");
+        assertThat(fragments.cachedRows()).isEqualTo(1);
+
+        itemRepository.clearStore();
+        fragments.rows(List.of(), "/validation/v4/items");
+        assertThat(fragments.cachedRows()).isEqualTo(0);
+    }
+
+    @Test
+    void maxRows() {
+        for (long id = 1; id <= 10; id++) {
+            fragments.rows(List.of(item(id, 1L, "item" + id)), "/validation/v4/items");
+        }
+        assertThat(fragments.cachedRows()).isLessThanOrEqualTo(5);
+    }
+
+    private Item item(Long id, Long version, String itemName) {
+        Item item = new Item(itemName, 10000, 10);
+        item.setId(id);
+        item.setVersion(version);
+        return item;
+    }
+
+    private ResourceBundleMessageSource messageSource() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasenames("messages", "errors");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+        return messageSource;
+    }
+}
@@ -0,0 +1,54 @@
+package hello.itemservice.web.validation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class NonBlockingBodyFilterTest {
+
+    @Test
+    void readListenerOnBufferedBody() throws IOException {
+        //given
+        NonBlockingBodyFilter.BufferedBodyRequest request = new NonBlockingBodyFilter.BufferedBodyRequest(new MockHttpServletRequest());
+        request.body = "{\"itemName\":\"itemA\"}".getBytes(StandardCharsets.UTF_8);
+        ServletInputStream in = request.getInputStream();
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        List<String> calls = new ArrayList<>();
+
+        //when 이미 읽어둔 본문이므로 리스너를 등록하면 바로 모두 읽을 수 있다.
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                calls.add("onDataAvailable");
+                byte[] buffer = new byte[4];
+                while (in.isReady() && !in.isFinished()) {
+                    int n = in.read(buffer);
+                    read.write(buffer, 0, n);
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                calls.add("onAllDataRead");
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                calls.add("onError");
+            }
+        });
+
+        //then
+        assertThat(calls).containsExactly("onDataAvailable", "onAllDataRead");
+        assertThat(read.toString(StandardCharsets.UTF_8)).isEqualTo("{\"itemName\":\"itemA\"}");
+    }
+}
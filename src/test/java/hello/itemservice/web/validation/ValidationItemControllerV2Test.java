@@ -0,0 +1,42 @@
+package hello.itemservice.web.validation;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.validation.BindingResult;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ValidationItemControllerV2Test {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void addItemSingleGlobalError() throws Exception {
+        //given: 전역 Bean Validation과 @InitBinder ItemValidator가 모두 실행된다.
+        MvcResult result = mockMvc.perform(post("/validation/v2/items/add")
+                        .param("itemName", "minTotalV2")
+                        .param("price", "1000")
+                        .param("quantity", "1"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        //when
+        BindingResult bindingResult = (BindingResult) result.getModelAndView().getModel()
+                .get(BindingResult.MODEL_KEY_PREFIX + "item");
+
+        //then
+        assertThat(bindingResult.getFieldErrorCount()).isEqualTo(0);
+        assertThat(bindingResult.getGlobalErrorCount()).isEqualTo(1);
+        assertThat(bindingResult.getGlobalError().getCode()).isEqualTo("totalPriceMin");
+        assertThat(bindingResult.getGlobalError().getArguments()).containsExactly(10000L, 1000L);
+    }
+}
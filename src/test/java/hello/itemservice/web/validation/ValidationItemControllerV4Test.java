@@ -0,0 +1,72 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.validation.BindingResult;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ValidationItemControllerV4Test {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ItemRepository itemRepository;
+
+    @Test
+    void editStaleVersion() throws Exception {
+        //given 조회한 뒤에 다른 사람이 먼저 수정
+        Item item = itemRepository.save(new Item("staleItem", 10000, 10));
+        itemRepository.update(item.getId(), new Item("other", 20000, 20));
+
+        //when
+        MvcResult result = mockMvc.perform(edit(item.getId(), item.getVersion()))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        //then 현재 값과 버전으로 다시 입력 폼을 보여준다.
+        BindingResult bindingResult = (BindingResult) result.getModelAndView().getModel()
+                .get(BindingResult.MODEL_KEY_PREFIX + "item");
+        assertThat(bindingResult.getGlobalError().getCode()).isEqualTo("staleVersion");
+        ItemUpdateForm form = (ItemUpdateForm) bindingResult.getTarget();
+        assertThat(form.getItemName()).isEqualTo("other");
+        assertThat(form.getVersion()).isEqualTo(2L);
+    }
+
+    @Test
+    void editDeletedItem() throws Exception {
+        //given 조회한 뒤에 삭제
+        Item item = itemRepository.save(new Item("deletedItem", 10000, 10));
+        itemRepository.deleteByIds(List.of(item.getId()));
+
+        //when then
+        mockMvc.perform(edit(item.getId(), item.getVersion()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/validation/v4/items"));
+    }
+
+    private MockHttpServletRequestBuilder edit(Long itemId, Long version) {
+        return post("/validation/v4/items/{itemId}/edit", itemId)
+                .param("id", String.valueOf(itemId))
+                .param("itemName", "mine")
+                .param("price", "30000")
+                .param("quantity", "30")
+                .param("version", String.valueOf(version));
+    }
+}
@@ -0,0 +1,37 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.domain.item.ItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Validator;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ValidationMetricsTest {
+
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ValidationMetrics validationMetrics = new ValidationMetrics(registry);
+
+    @Test
+    void timedAndCounted() {
+        //given
+        Validator validator = validationMetrics.timed("itemValidator", new ItemValidator(new ItemRepository()));
+        Item item = new Item(" ", 0, 10);
+        BindingResult bindingResult = new BeanPropertyBindingResult(item, "item");
+
+        //when
+        validator.validate(item, bindingResult);
+        validationMetrics.countErrors("/validation/v2/items", bindingResult);
+
+        //then
+        assertThat(registry.get("validation.duration").tag("validator", "itemValidator").tag("target", "Item")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("validation.errors").tag("code", "range").tag("field", "price")
+                .counter().count()).isEqualTo(1);
+        assertThat(registry.get("validation.errors").tag("code", "totalPriceMin").tag("field", "global")
+                .counter().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,116 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+import org.springframework.validation.Validator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ValidationResultCacheTest {
+
+    ValidationResultCache validationResultCache = new ValidationResultCache(100);
+    AtomicInteger calls = new AtomicInteger();
+
+    Validator priceValidator = new Validator() {
+        @Override
+        public boolean supports(Class<?> clazz) {
+            return ItemSaveForm.class.isAssignableFrom(clazz);
+        }
+
+        @Override
+        public void validate(Object target, Errors errors) {
+            calls.incrementAndGet();
+            if (((ItemSaveForm) target).getPrice() < 1000) {
+                errors.rejectValue("price", "range", new Object[]{1000, 1000000}, null);
+            }
+        }
+    };
+
+    @Test
+    void sameContent() {
+        //given
+        SmartValidator validator = validationResultCache.cached(priceValidator);
+
+        //when 내용이 같은 다른 객체로 두 번 검증
+        BindingResult first = validate(validator, form("itemA", 100));
+        BindingResult second = validate(validator, form("itemA", 100));
+
+        //then
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(second.getFieldError("price").getCode()).isEqualTo("range");
+        assertThat(second.getAllErrors()).isEqualTo(first.getAllErrors());
+        assertThat(validationResultCache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void differentContentOrState() {
+        AtomicLong state = new AtomicLong();
+        SmartValidator validator = validationResultCache.cached(priceValidator, state::get);
+
+        validate(validator, form("itemA", 100));
+        validate(validator, form("itemB", 100));
+        state.incrementAndGet();
+        validate(validator, form("itemA", 100));
+
+        assertThat(calls.get()).isEqualTo(3);
+    }
+
+    @Test
+    void bindingErrorsAreNotCached() {
+        SmartValidator validator = validationResultCache.cached(priceValidator);
+
+        for (int i = 0; i < 2; i++) {
+            ItemSaveForm form = form("itemA", 100);
+            BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+            bindingResult.rejectValue("quantity", "typeMismatch");
+            validator.validate(form, bindingResult);
+        }
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void maxSize() {
+        SmartValidator validator = validationResultCache.cached(priceValidator);
+
+        for (int i = 0; i < 1000; i++) {
+            validate(validator, form("item" + i, 100));
+        }
+
+        assertThat(validationResultCache.size()).isLessThanOrEqualTo(100);
+        //최근에 사용한 결과는 남아 있다.
+        validate(validator, form("item999", 100));
+        assertThat(validationResultCache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void disabled() {
+        SmartValidator validator = new ValidationResultCache(0).cached(priceValidator);
+
+        validate(validator, form("itemA", 100));
+        validate(validator, form("itemA", 100));
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    private BindingResult validate(Validator validator, ItemSaveForm form) {
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+        validator.validate(form, bindingResult);
+        return bindingResult;
+    }
+
+    private ItemSaveForm form(String itemName, Integer price) {
+        ItemSaveForm form = new ItemSaveForm();
+        form.setItemName(itemName);
+        form.setPrice(price);
+        form.setQuantity(10);
+        return form;
+    }
+}
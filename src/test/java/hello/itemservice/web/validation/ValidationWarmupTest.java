@@ -0,0 +1,25 @@
+package hello.itemservice.web.validation;
+
+import hello.itemservice.domain.item.Item;
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import hello.itemservice.web.validation.form.ItemUpdateForm;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.*;
+
+@SpringBootTest
+class ValidationWarmupTest {
+
+    @Autowired
+    ValidationWarmup validationWarmup;
+
+    @Test
+    void warmup() {
+        assertThat(validationWarmup.getFormTypes()).contains(Item.class, ItemSaveForm.class, ItemUpdateForm.class);
+        assertThat(validationWarmup.getLocales()).contains(Locale.getDefault(), Locale.ENGLISH);
+    }
+}
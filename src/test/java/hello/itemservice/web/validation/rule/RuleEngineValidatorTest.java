@@ -0,0 +1,104 @@
+package hello.itemservice.web.validation.rule;
+
+import hello.itemservice.web.validation.form.ItemSaveForm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.ObjectError;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RuleEngineValidatorTest {
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void afterEach() {
+        executor.shutdown();
+    }
+
+    @Test
+    void mergeInDeclaredOrder() {
+        //given 먼저 등록한 규칙이 더 늦게 끝난다.
+        RuleEngineValidator<ItemSaveForm> validator = new RuleEngineValidator<>(ItemSaveForm.class, List.of(
+                ValidationRule.async("slow", (form, errors) -> {
+                    sleep(100);
+                    errors.reject("slow");
+                }),
+                ValidationRule.async("fast", (form, errors) -> errors.reject("fast")),
+                ValidationRule.inline("inline", (form, errors) -> errors.rejectValue("price", "inline"))
+        ), executor);
+
+        //when
+        BindingResult bindingResult = validate(validator);
+
+        //then
+        assertThat(codes(bindingResult)).containsExactly("slow", "fast", "inline");
+    }
+
+    @Test
+    void runConcurrently() {
+        RuleEngineValidator<ItemSaveForm> validator = new RuleEngineValidator<>(ItemSaveForm.class, List.of(
+                ValidationRule.async("a", (form, errors) -> sleep(200)),
+                ValidationRule.async("b", (form, errors) -> sleep(200)),
+                ValidationRule.async("c", (form, errors) -> sleep(200))
+        ), executor);
+
+        long start = System.nanoTime();
+        validate(validator);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(elapsedMillis).isLessThan(500);
+    }
+
+    @Test
+    void skipWhenDependencyFails() {
+        //given
+        AtomicBoolean executed = new AtomicBoolean();
+        RuleEngineValidator<ItemSaveForm> validator = new RuleEngineValidator<>(ItemSaveForm.class, List.of(
+                ValidationRule.inline("fields", (form, errors) -> errors.rejectValue("itemName", "required")),
+                ValidationRule.async("unique", (form, errors) -> executed.set(true), "fields")
+        ), executor);
+
+        //when
+        BindingResult bindingResult = validate(validator);
+
+        //then
+        assertThat(codes(bindingResult)).containsExactly("required");
+        assertThat(executed).isFalse();
+    }
+
+    @Test
+    void unknownDependency() {
+        assertThatThrownBy(() -> new RuleEngineValidator<>(ItemSaveForm.class, List.of(
+                ValidationRule.<ItemSaveForm>inline("unique", (form, errors) -> {
+                }, "fields")
+        ), executor)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private BindingResult validate(RuleEngineValidator<ItemSaveForm> validator) {
+        ItemSaveForm form = new ItemSaveForm();
+        BindingResult bindingResult = new BeanPropertyBindingResult(form, "item");
+        validator.validate(form, bindingResult);
+        return bindingResult;
+    }
+
+    private List<String> codes(BindingResult bindingResult) {
+        return bindingResult.getAllErrors().stream().map(ObjectError::getCode).collect(Collectors.toList());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}